@@ -0,0 +1,267 @@
+package hal;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Reads and writes tasks in a versioned binary snapshot format.
+ * The file starts with a header and a table of record offsets, followed by one record per task.
+ * Each record has a fixed-width header (type byte, done flag, two epoch-minute longs and the
+ * description length) followed by the UTF-8 description, so the file can be decoded straight
+ * from a memory-mapped buffer.
+ */
+public class BinarySnapshot {
+    static final int RECORD_HEADER_SIZE = 22;
+    static final int TYPE_OFFSET = 0;
+    static final int DONE_OFFSET = 1;
+    static final int FIRST_TIME_OFFSET = 2;
+    static final int SECOND_TIME_OFFSET = 10;
+    static final int LENGTH_OFFSET = 18;
+    static final byte TODO_TYPE = 0;
+    static final byte DEADLINE_TYPE = 1;
+    static final byte EVENT_TYPE = 2;
+    static final byte NOT_DONE = 0;
+    static final byte DONE = 1;
+
+    private static final int MAGIC = 0x48414C42;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 12;
+    private static final int OFFSET_SIZE = 8;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path path;
+
+    /**
+     * Constructs a BinarySnapshot backed by the specified file.
+     *
+     * @param filePath The path to the snapshot file.
+     */
+    public BinarySnapshot(String filePath) {
+        assert filePath != null : "Snapshot path should not be null";
+        this.path = Path.of(filePath);
+    }
+
+    /**
+     * Returns whether the snapshot file exists.
+     *
+     * @return True if the file exists, false otherwise.
+     */
+    public boolean exists() {
+        return path.toFile().exists();
+    }
+
+    /**
+     * Loads all tasks from the snapshot file through a memory-mapped buffer.
+     *
+     * @return The tasks in the order they were saved.
+     * @throws HalException If the file cannot be read or is not a valid snapshot.
+     */
+    public ArrayList<Task> load() throws HalException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FILE_HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new HalException("Error: Snapshot file is corrupted!");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return readTasks(buffer);
+        } catch (IOException e) {
+            throw new HalException("Error: Could not load snapshot file!");
+        }
+    }
+
+    private ArrayList<Task> readTasks(ByteBuffer buffer) throws HalException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new HalException("Error: Snapshot file has an unsupported format!");
+        }
+        int count = buffer.getInt(8);
+        if (count < 0 || FILE_HEADER_SIZE + (long) count * OFFSET_SIZE > buffer.limit()) {
+            throw new HalException("Error: Snapshot file is corrupted!");
+        }
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long offset = buffer.getLong(FILE_HEADER_SIZE + i * OFFSET_SIZE);
+            Task task = offset < 0 || offset > buffer.limit() - RECORD_HEADER_SIZE
+                    ? null
+                    : readRecord(buffer, (int) offset);
+            if (task == null) {
+                throw new HalException("Error: Snapshot file is corrupted!");
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Saves the given tasks to the snapshot file, replacing its contents.
+     * The tasks are written to a temporary file that is then atomically moved over the snapshot,
+     * so a crash during a save leaves the previous snapshot intact.
+     *
+     * @param tasks The tasks to save.
+     * @throws HalException If the file cannot be written.
+     */
+    public void save(Task... tasks) throws HalException {
+        File directory = path.toFile().getParentFile();
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+        Path tempPath = Path.of(path + TEMP_SUFFIX);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tempPath.toFile()), BUFFER_SIZE)) {
+            write(out, tasks);
+        } catch (IOException e) {
+            throw new HalException("Error: Could not save snapshot file!");
+        }
+        try {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new HalException("Error: Could not save snapshot file!");
+        }
+    }
+
+    /**
+     * Writes the given tasks to a stream in the snapshot format.
+     *
+     * @param out The stream to write to.
+     * @param tasks The tasks to write.
+     * @throws IOException If the tasks cannot be written.
+     */
+    public void write(OutputStream out, Task... tasks) throws IOException {
+        byte[][] descriptions = new byte[tasks.length][];
+        long offset = FILE_HEADER_SIZE + (long) tasks.length * OFFSET_SIZE;
+        long[] offsets = new long[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            descriptions[i] = encodeDescription(tasks[i]);
+            offsets[i] = offset;
+            offset += RECORD_HEADER_SIZE + descriptions[i].length;
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(tasks.length);
+        for (long recordOffset : offsets) {
+            data.writeLong(recordOffset);
+        }
+        for (int i = 0; i < tasks.length; i++) {
+            writeRecordHeader(data, tasks[i], descriptions[i].length);
+            data.write(descriptions[i]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Returns the path of the snapshot file.
+     *
+     * @return The snapshot path.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Encodes the description of a task as UTF-8.
+     *
+     * @param task The task whose description to encode.
+     * @return The encoded description.
+     */
+    static byte[] encodeDescription(Task task) {
+        return task.getDescription().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the fixed-width header of a task record.
+     *
+     * @param out The stream to write to.
+     * @param task The task to write.
+     * @param descriptionLength The length of the encoded description in bytes.
+     * @throws IOException If the header cannot be written.
+     */
+    static void writeRecordHeader(DataOutputStream out, Task task, int descriptionLength) throws IOException {
+        out.writeByte(toTypeByte(task.getTaskType()));
+        out.writeByte(task.isDone() ? DONE : NOT_DONE);
+        out.writeLong(getFirstTime(task));
+        out.writeLong(getSecondTime(task));
+        out.writeInt(descriptionLength);
+    }
+
+    /**
+     * Decodes the task record that starts at the given position of the buffer.
+     *
+     * @param buffer The buffer holding the record.
+     * @param offset The position of the record.
+     * @return The decoded task, or null if the record is invalid.
+     */
+    static Task readRecord(ByteBuffer buffer, int offset) {
+        int length = buffer.getInt(offset + LENGTH_OFFSET);
+        int descriptionOffset = offset + RECORD_HEADER_SIZE;
+        if (length <= 0 || length > buffer.limit() - descriptionOffset) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(descriptionOffset, bytes);
+        String description = new String(bytes, StandardCharsets.UTF_8);
+
+        Task task;
+        switch (buffer.get(offset + TYPE_OFFSET)) {
+        case TODO_TYPE:
+            task = new Todo(description);
+            break;
+        case DEADLINE_TYPE:
+            task = new Deadline(description, buffer.getLong(offset + FIRST_TIME_OFFSET));
+            break;
+        case EVENT_TYPE:
+            task = new Event(description, buffer.getLong(offset + FIRST_TIME_OFFSET),
+                    buffer.getLong(offset + SECOND_TIME_OFFSET));
+            break;
+        default:
+            return null;
+        }
+        if (buffer.get(offset + DONE_OFFSET) == DONE) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    private static byte toTypeByte(TaskType taskType) {
+        if (taskType == null) {
+            return TODO_TYPE;
+        }
+        switch (taskType) {
+        case DEADLINE:
+            return DEADLINE_TYPE;
+        case EVENT:
+            return EVENT_TYPE;
+        default:
+            return TODO_TYPE;
+        }
+    }
+
+    private static long getFirstTime(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getByMinute();
+        } else if (task instanceof Event) {
+            return ((Event) task).getFromMinute();
+        }
+        return 0;
+    }
+
+    private static long getSecondTime(Task task) {
+        if (task instanceof Event) {
+            return ((Event) task).getToMinute();
+        }
+        return 0;
+    }
+}
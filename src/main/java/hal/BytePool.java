@@ -0,0 +1,31 @@
+package hal;
+
+/**
+ * Holds runs of bytes that are appended one at a time and never change afterwards.
+ * Each run is addressed by the address returned when it was appended, together with its length.
+ */
+public interface BytePool {
+    /**
+     * Appends a run of bytes.
+     *
+     * @param bytes The bytes to append.
+     * @return The address of the first byte of the run.
+     */
+    long append(byte[] bytes);
+
+    /**
+     * Copies a run of bytes out of the pool.
+     *
+     * @param address The address of the run.
+     * @param target The array to copy the run into, from its first element.
+     * @param length The length of the run.
+     */
+    void copy(long address, byte[] target, int length);
+
+    /**
+     * Returns the number of bytes appended so far.
+     *
+     * @return The number of bytes held, including runs that are no longer used.
+     */
+    long getSize();
+}
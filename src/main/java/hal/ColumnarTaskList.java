@@ -0,0 +1,451 @@
+package hal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A task list that keeps its tasks in parallel primitive arrays instead of as task objects.
+ * Each task takes up one slot in every column: its ID, its type, its done flag in a bit set, its due and
+ * end times as epoch minutes, and the address of its UTF-8 description in one shared {@link BytePool},
+ * which can be kept off the heap.
+ * Tasks are only created, as short-lived views, when a caller asks for one, and marking a view does not
+ * change the list; use {@link #markTask(int)} and {@link #unmarkTask(int)} instead.
+ * Duplicates are found through an open-addressing table of task IDs keyed by task hash. Searches scan
+ * the columns rather than keeping the search indexes of {@link TaskList}, which would cost more memory
+ * than the tasks themselves.
+ */
+public class ColumnarTaskList extends TaskList {
+    private static final int INITIAL_CAPACITY = 16;
+    // Descriptions of deleted tasks are left in the pool until they make up half of it and at least this much
+    private static final int MIN_UNUSED_POOL_BYTES = 1 << 20;
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final long EMPTY_SLOT = 0;
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+
+    private int count;
+    private long nextId;
+    private long[] ids;
+    private byte[] types;
+    private final BitSet doneFlags;
+    // The deadline of a deadline or the start of an event
+    private long[] dueMinutes;
+    private long[] endMinutes;
+    private long[] descriptionAddresses;
+    private int[] descriptionLengths;
+    private int maxDescriptionLength;
+    private final boolean isOffHeap;
+    private BytePool descriptionPool;
+    private long unusedPoolBytes;
+    private long[] slotIds;
+    private int[] slotHashes;
+    private int slotCount;
+
+    /**
+     * Constructs an empty ColumnarTaskList that keeps descriptions on the heap.
+     */
+    public ColumnarTaskList() {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty ColumnarTaskList.
+     *
+     * @param isOffHeap Whether descriptions are kept in an {@link OffHeapBytePool} rather than on the heap.
+     */
+    public ColumnarTaskList(boolean isOffHeap) {
+        this.isOffHeap = isOffHeap;
+        this.descriptionPool = createPool();
+        this.nextId = 1;
+        this.ids = new long[INITIAL_CAPACITY];
+        this.types = new byte[INITIAL_CAPACITY];
+        this.doneFlags = new BitSet();
+        this.dueMinutes = new long[INITIAL_CAPACITY];
+        this.endMinutes = new long[INITIAL_CAPACITY];
+        this.descriptionAddresses = new long[INITIAL_CAPACITY];
+        this.descriptionLengths = new int[INITIAL_CAPACITY];
+        this.slotIds = new long[INITIAL_CAPACITY];
+        this.slotHashes = new int[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public boolean addTask(Task task) {
+        assert task != null : "Task to add should not be null";
+        assert task.getTaskType() != null : "Columnar lists hold only todos, deadlines and events";
+        if (isDuplicate(task)) {
+            return false;
+        }
+        if (count == ids.length) {
+            growColumns();
+        }
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        descriptionAddresses[count] = descriptionPool.append(description);
+        descriptionLengths[count] = description.length;
+        maxDescriptionLength = Math.max(maxDescriptionLength, description.length);
+
+        task.setId(nextId++);
+        ids[count] = task.getId();
+        types[count] = (byte) task.getTaskType().ordinal();
+        doneFlags.set(count, task.isDone());
+        dueMinutes[count] = TimeIndex.getDueMinute(task);
+        endMinutes[count] = task instanceof Event ? ((Event) task).getToMinute() : DateTimeCodec.INVALID;
+        count++;
+        insertSlot(task.getId(), task.hashCode());
+        return true;
+    }
+
+    @Override
+    public boolean isDuplicate(Task task) {
+        assert task != null : "Task should not be null";
+        return findSlot(task) >= 0;
+    }
+
+    @Override
+    public ArrayList<Integer> findDuplicateIndices(Task task) {
+        assert task != null : "Task should not be null";
+        ArrayList<Integer> duplicateIndices = new ArrayList<>();
+        int slot = findSlot(task);
+        if (slot >= 0) {
+            duplicateIndices.add(indexOf(slotIds[slot]));
+        }
+        return duplicateIndices;
+    }
+
+    @Override
+    public int getTaskCount() {
+        return count;
+    }
+
+    @Override
+    public Task getTask(int index) {
+        if (index >= 0 && index < count) {
+            return createView(index);
+        }
+        return null;
+    }
+
+    @Override
+    public void markTask(int index) {
+        assert index >= 0 : "Index should not be negative";
+        if (index >= 0 && index < count) {
+            doneFlags.set(index);
+        }
+    }
+
+    @Override
+    public void unmarkTask(int index) {
+        assert index >= 0 : "Index should not be negative";
+        if (index >= 0 && index < count) {
+            doneFlags.clear(index);
+        }
+    }
+
+    @Override
+    public Task deleteTask(int index) {
+        assert index >= 0 : "Index should not be negative";
+        if (index < 0 || index >= count) {
+            return null;
+        }
+        Task deletedTask = createView(index);
+        removeSlot(findSlot(deletedTask));
+        unusedPoolBytes += descriptionLengths[index];
+
+        int tailLength = count - index - 1;
+        System.arraycopy(ids, index + 1, ids, index, tailLength);
+        System.arraycopy(types, index + 1, types, index, tailLength);
+        System.arraycopy(dueMinutes, index + 1, dueMinutes, index, tailLength);
+        System.arraycopy(endMinutes, index + 1, endMinutes, index, tailLength);
+        System.arraycopy(descriptionAddresses, index + 1, descriptionAddresses, index, tailLength);
+        System.arraycopy(descriptionLengths, index + 1, descriptionLengths, index, tailLength);
+        BitSet tailFlags = doneFlags.get(index + 1, count);
+        doneFlags.clear(index, count);
+        for (int i = tailFlags.nextSetBit(0); i >= 0; i = tailFlags.nextSetBit(i + 1)) {
+            doneFlags.set(index + i);
+        }
+        count--;
+
+        if (unusedPoolBytes > descriptionPool.getSize() / 2 && unusedPoolBytes > MIN_UNUSED_POOL_BYTES) {
+            compactPool();
+        }
+        return deletedTask;
+    }
+
+    @Override
+    public Task getTaskById(long id) {
+        return getTask(indexOf(id));
+    }
+
+    @Override
+    public int getIndexById(long id) {
+        return indexOf(id);
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        return new AbstractList<Task>() {
+            @Override
+            public Task get(int index) {
+                if (index < 0 || index >= count) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+                }
+                return createView(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    @Override
+    public ArrayList<Task> findTasks(String keyword) {
+        assert keyword != null : "Keyword should not be null";
+        String lowerKeyword = keyword.toLowerCase();
+        byte[] asciiKeyword = isAscii(lowerKeyword) ? lowerKeyword.getBytes(StandardCharsets.US_ASCII) : null;
+        byte[] description = new byte[maxDescriptionLength];
+        ArrayList<Task> foundTasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (containsIgnoreCase(i, description, lowerKeyword, asciiKeyword)) {
+                foundTasks.add(createView(i));
+            }
+        }
+        return foundTasks;
+    }
+
+    @Override
+    public ArrayList<Task> findTasksDue(long startMinute, long endMinute) {
+        ArrayList<Integer> dueIndices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long dueMinute = dueMinutes[i];
+            if (dueMinute != DateTimeCodec.INVALID && dueMinute >= startMinute && dueMinute <= endMinute) {
+                dueIndices.add(i);
+            }
+        }
+        // The sort is stable, so tasks due in the same minute stay in list order
+        dueIndices.sort(Comparator.comparingLong(index -> dueMinutes[index]));
+        ArrayList<Task> dueTasks = new ArrayList<>(dueIndices.size());
+        for (int index : dueIndices) {
+            dueTasks.add(createView(index));
+        }
+        return dueTasks;
+    }
+
+    @Override
+    public ArrayList<Task> findOverlappingEvents(Event event) {
+        assert event != null : "Event should not be null";
+        long from = event.getFromMinute();
+        long end = EventIntervalTree.getEndMinute(from, event.getToMinute());
+        ArrayList<Integer> eventIndices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (isEvent(i) && ids[i] != event.getId() && dueMinutes[i] < end && getEndMinute(i) > from) {
+                eventIndices.add(i);
+            }
+        }
+        eventIndices.sort(Comparator.comparingLong(index -> dueMinutes[index]));
+        ArrayList<Task> overlappingEvents = new ArrayList<>(eventIndices.size());
+        for (int index : eventIndices) {
+            overlappingEvents.add(createView(index));
+        }
+        return overlappingEvents;
+    }
+
+    @Override
+    public ArrayList<Event[]> findConflicts() {
+        ArrayList<Integer> eventIndices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (isEvent(i)) {
+                eventIndices.add(i);
+            }
+        }
+        eventIndices.sort(Comparator.comparingLong(index -> dueMinutes[index]));
+        // Each event is paired with the later-starting events that start before it ends
+        Event[] views = new Event[eventIndices.size()];
+        ArrayList<Event[]> conflicts = new ArrayList<>();
+        for (int i = 0; i < eventIndices.size(); i++) {
+            long end = getEndMinute(eventIndices.get(i));
+            for (int j = i + 1; j < eventIndices.size() && dueMinutes[eventIndices.get(j)] < end; j++) {
+                conflicts.add(new Event[] {getView(views, eventIndices, i), getView(views, eventIndices, j)});
+            }
+        }
+        return conflicts;
+    }
+
+    private Event getView(Event[] views, ArrayList<Integer> eventIndices, int position) {
+        if (views[position] == null) {
+            views[position] = (Event) createView(eventIndices.get(position));
+        }
+        return views[position];
+    }
+
+    private boolean isEvent(int index) {
+        return TASK_TYPES[types[index]] == TaskType.EVENT;
+    }
+
+    private long getEndMinute(int index) {
+        return EventIntervalTree.getEndMinute(dueMinutes[index], endMinutes[index]);
+    }
+
+    private Task createView(int index) {
+        byte[] descriptionBytes = new byte[descriptionLengths[index]];
+        descriptionPool.copy(descriptionAddresses[index], descriptionBytes, descriptionBytes.length);
+        String description = new String(descriptionBytes, StandardCharsets.UTF_8);
+        Task task;
+        switch (TASK_TYPES[types[index]]) {
+        case DEADLINE:
+            task = new Deadline(description, dueMinutes[index]);
+            break;
+        case EVENT:
+            task = new Event(description, dueMinutes[index], endMinutes[index]);
+            break;
+        default:
+            task = new Todo(description);
+            break;
+        }
+        task.setId(ids[index]);
+        task.disableRenderCache();
+        if (doneFlags.get(index)) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    // IDs increase in list order, so the ID column is sorted
+    private int indexOf(long id) {
+        int index = Arrays.binarySearch(ids, 0, count, id);
+        return index >= 0 ? index : -1;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a description contains a lowercase keyword, ignoring case.
+     * ASCII descriptions are matched on their bytes, and anything else is decoded and lowercased,
+     * so the result is the same as lowercasing the description and searching it.
+     */
+    private boolean containsIgnoreCase(int index, byte[] description, String lowerKeyword, byte[] asciiKeyword) {
+        int length = descriptionLengths[index];
+        descriptionPool.copy(descriptionAddresses[index], description, length);
+        if (asciiKeyword != null && isAscii(description, length)) {
+            for (int i = 0; i + asciiKeyword.length <= length; i++) {
+                int j = 0;
+                while (j < asciiKeyword.length && toLowerAscii(description[i + j]) == asciiKeyword[j]) {
+                    j++;
+                }
+                if (j == asciiKeyword.length) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return new String(description, 0, length, StandardCharsets.UTF_8).toLowerCase().contains(lowerKeyword);
+    }
+
+    private static boolean isAscii(byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte toLowerAscii(byte value) {
+        return value >= 'A' && value <= 'Z' ? (byte) (value + ('a' - 'A')) : value;
+    }
+
+    private void growColumns() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        dueMinutes = Arrays.copyOf(dueMinutes, capacity);
+        endMinutes = Arrays.copyOf(endMinutes, capacity);
+        descriptionAddresses = Arrays.copyOf(descriptionAddresses, capacity);
+        descriptionLengths = Arrays.copyOf(descriptionLengths, capacity);
+    }
+
+    private BytePool createPool() {
+        return isOffHeap ? new OffHeapBytePool() : new HeapBytePool();
+    }
+
+    // Copies the descriptions of the remaining tasks into a new pool, leaving those of deleted tasks behind
+    private void compactPool() {
+        BytePool compactedPool = createPool();
+        for (int i = 0; i < count; i++) {
+            byte[] description = new byte[descriptionLengths[i]];
+            descriptionPool.copy(descriptionAddresses[i], description, description.length);
+            descriptionAddresses[i] = compactedPool.append(description);
+        }
+        descriptionPool = compactedPool;
+        unusedPoolBytes = 0;
+    }
+
+    private int findSlot(Task task) {
+        int hash = task.hashCode();
+        int mask = slotIds.length - 1;
+        for (int slot = spread(hash) & mask; slotIds[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            if (slotHashes[slot] == hash && task.equals(createView(indexOf(slotIds[slot])))) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insertSlot(long id, int hash) {
+        if (slotCount + 1 > slotIds.length * LOAD_FACTOR) {
+            long[] oldIds = slotIds;
+            int[] oldHashes = slotHashes;
+            slotIds = new long[oldIds.length * 2];
+            slotHashes = new int[oldIds.length * 2];
+            slotCount = 0;
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != EMPTY_SLOT) {
+                    insertSlot(oldIds[i], oldHashes[i]);
+                }
+            }
+        }
+        int mask = slotIds.length - 1;
+        int slot = spread(hash) & mask;
+        while (slotIds[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        slotIds[slot] = id;
+        slotHashes[slot] = hash;
+        slotCount++;
+    }
+
+    // Shifts later entries of the probe run back into the gap, as LongHashMap does
+    private void removeSlot(int slot) {
+        assert slot >= 0 : "Task to remove should be in the hash table";
+        int mask = slotIds.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (slotIds[next] != EMPTY_SLOT) {
+            int home = spread(slotHashes[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slotIds[gap] = slotIds[next];
+                slotHashes[gap] = slotHashes[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slotIds[gap] = EMPTY_SLOT;
+        slotCount--;
+    }
+
+    private static int spread(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return mixed ^ (mixed >>> 16);
+    }
+}
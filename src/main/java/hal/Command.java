@@ -12,6 +12,10 @@ public enum Command {
     DEADLINE,
     EVENT,
     FIND,
+    DUE,
+    BETWEEN,
+    CONFLICTS,
+    EXPORT,
     BYE,
     UNKNOWN
 }
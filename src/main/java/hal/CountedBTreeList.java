@@ -0,0 +1,355 @@
+package hal;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A list backed by a B+tree in which every inner node records how many elements each of its children holds.
+ * Finding, inserting or removing the element at a position walks down one path of the tree, so it takes
+ * O(log N) instead of shifting every later element as an array list does. Elements are kept in leaves of
+ * up to {@value #MAX_ENTRIES} entries, which are linked so that iterating the list does not search the tree.
+ * A node that falls below half full when an element is removed is merged with a neighbour if the two fit
+ * into one node. Nodes are not rebalanced otherwise, so they are not kept half full: an append that splits
+ * a full node leaves the new node with one entry, and a node next to full neighbours can shrink to one entry.
+ *
+ * @param <E> The type of the elements.
+ */
+public class CountedBTreeList<E> extends AbstractList<E> {
+    private static final int MAX_ENTRIES = 64;
+    // Nodes that fall below this many entries are merged with a neighbour if they fit
+    private static final int MERGE_THRESHOLD = MAX_ENTRIES / 2;
+
+    private Node root;
+
+    /**
+     * Constructs an empty CountedBTreeList.
+     */
+    public CountedBTreeList() {
+        this.root = new Leaf();
+    }
+
+    /**
+     * Constructs a CountedBTreeList holding the given elements in iteration order.
+     * The tree is built bottom-up from full leaves, which takes O(N).
+     *
+     * @param elements The elements to hold.
+     */
+    public CountedBTreeList(Collection<? extends E> elements) {
+        this.root = build(elements.toArray());
+    }
+
+    @Override
+    public int size() {
+        return root.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        checkIndex(index, root.size);
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            int child = 0;
+            while (index >= inner.counts[child]) {
+                index -= inner.counts[child];
+                child++;
+            }
+            node = inner.children[child];
+        }
+        return (E) ((Leaf) node).items[index];
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E previous = remove(index);
+        add(index, element);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        checkIndex(index, root.size + 1);
+        Node sibling = root.insert(index, element);
+        if (sibling != null) {
+            Inner newRoot = new Inner();
+            newRoot.insertChild(0, root);
+            newRoot.insertChild(1, sibling);
+            root = newRoot;
+        }
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        checkIndex(index, root.size);
+        E removed = (E) root.remove(index);
+        while (root instanceof Inner && ((Inner) root).childCount == 1) {
+            root = ((Inner) root).children[0];
+        }
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        root = new Leaf();
+        modCount++;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new LeafIterator();
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (bound - 1));
+        }
+    }
+
+    private static Node build(Object[] elements) {
+        ArrayList<Node> level = new ArrayList<>();
+        Leaf previousLeaf = null;
+        for (int start = 0; start < elements.length; start += MAX_ENTRIES) {
+            Leaf leaf = new Leaf();
+            leaf.count = Math.min(MAX_ENTRIES, elements.length - start);
+            leaf.size = leaf.count;
+            System.arraycopy(elements, start, leaf.items, 0, leaf.count);
+            if (previousLeaf != null) {
+                previousLeaf.next = leaf;
+            }
+            previousLeaf = leaf;
+            level.add(leaf);
+        }
+        while (level.size() > 1) {
+            ArrayList<Node> parents = new ArrayList<>();
+            for (int start = 0; start < level.size(); start += MAX_ENTRIES) {
+                Inner inner = new Inner();
+                for (int i = start; i < Math.min(start + MAX_ENTRIES, level.size()); i++) {
+                    inner.insertChild(inner.childCount, level.get(i));
+                }
+                parents.add(inner);
+            }
+            level = parents;
+        }
+        return level.isEmpty() ? new Leaf() : level.get(0);
+    }
+
+    /**
+     * A node of the tree, which knows how many elements it holds.
+     */
+    private abstract static class Node {
+        protected int size;
+
+        /**
+         * Inserts an element, splitting this node if it overflows.
+         *
+         * @return The new right half if this node was split, or null otherwise.
+         */
+        abstract Node insert(int index, Object element);
+
+        abstract Object remove(int index);
+
+        /** Returns the number of entries, which is what decides when nodes are split or merged. */
+        abstract int getEntryCount();
+
+        /** Moves every entry of the next node, which must fit, onto the end of this one. */
+        abstract void absorb(Node next);
+    }
+
+    /**
+     * A leaf holding elements in order.
+     */
+    private static class Leaf extends Node {
+        // One spare slot lets an insert overflow the leaf before it is split
+        private final Object[] items = new Object[MAX_ENTRIES + 1];
+        private int count;
+        private Leaf next;
+
+        @Override
+        Node insert(int index, Object element) {
+            System.arraycopy(items, index, items, index + 1, count - index);
+            items[index] = element;
+            count++;
+            size++;
+            if (count <= MAX_ENTRIES) {
+                return null;
+            }
+            Leaf right = new Leaf();
+            // Appending leaves this leaf full rather than half empty, since nothing will be inserted into it
+            int half = index == MAX_ENTRIES ? MAX_ENTRIES : count / 2;
+            right.count = count - half;
+            right.size = right.count;
+            System.arraycopy(items, half, right.items, 0, right.count);
+            Arrays.fill(items, half, count, null);
+            count = half;
+            size = half;
+            right.next = next;
+            next = right;
+            return right;
+        }
+
+        @Override
+        Object remove(int index) {
+            Object removed = items[index];
+            System.arraycopy(items, index + 1, items, index, count - index - 1);
+            items[--count] = null;
+            size--;
+            return removed;
+        }
+
+        @Override
+        int getEntryCount() {
+            return count;
+        }
+
+        @Override
+        void absorb(Node nextNode) {
+            Leaf nextLeaf = (Leaf) nextNode;
+            System.arraycopy(nextLeaf.items, 0, items, count, nextLeaf.count);
+            count += nextLeaf.count;
+            size += nextLeaf.size;
+            next = nextLeaf.next;
+        }
+    }
+
+    /**
+     * An inner node holding children in order, along with the number of elements in each child.
+     */
+    private static class Inner extends Node {
+        // One spare slot lets a child split overflow the node before it is split
+        private final Node[] children = new Node[MAX_ENTRIES + 1];
+        private final int[] counts = new int[MAX_ENTRIES + 1];
+        private int childCount;
+
+        @Override
+        Node insert(int index, Object element) {
+            int child = 0;
+            // An index at the end of a child is inserted into that child, so appends reach the last child
+            while (child < childCount - 1 && index > counts[child]) {
+                index -= counts[child];
+                child++;
+            }
+            Node sibling = children[child].insert(index, element);
+            counts[child] = children[child].size;
+            if (sibling != null) {
+                // The elements moved into the sibling are already counted in this node
+                size -= sibling.size;
+                insertChild(child + 1, sibling);
+            }
+            size++;
+            if (childCount <= MAX_ENTRIES) {
+                return null;
+            }
+            Inner right = new Inner();
+            int half = child + 1 == MAX_ENTRIES ? MAX_ENTRIES : childCount / 2;
+            for (int i = half; i < childCount; i++) {
+                right.insertChild(right.childCount, children[i]);
+                children[i] = null;
+                size -= counts[i];
+            }
+            childCount = half;
+            return right;
+        }
+
+        @Override
+        Object remove(int index) {
+            int child = 0;
+            while (index >= counts[child]) {
+                index -= counts[child];
+                child++;
+            }
+            Object removed = children[child].remove(index);
+            counts[child]--;
+            size--;
+            if (children[child].getEntryCount() < MERGE_THRESHOLD) {
+                mergeWithNeighbour(child);
+            }
+            return removed;
+        }
+
+        private void mergeWithNeighbour(int child) {
+            int entryCount = children[child].getEntryCount();
+            if (child > 0 && children[child - 1].getEntryCount() + entryCount <= MAX_ENTRIES) {
+                mergeChildren(child - 1);
+            } else if (child < childCount - 1 && children[child + 1].getEntryCount() + entryCount <= MAX_ENTRIES) {
+                mergeChildren(child);
+            }
+        }
+
+        private void mergeChildren(int left) {
+            children[left].absorb(children[left + 1]);
+            counts[left] = children[left].size;
+            System.arraycopy(children, left + 2, children, left + 1, childCount - left - 2);
+            System.arraycopy(counts, left + 2, counts, left + 1, childCount - left - 2);
+            children[--childCount] = null;
+        }
+
+        private void insertChild(int position, Node child) {
+            System.arraycopy(children, position, children, position + 1, childCount - position);
+            System.arraycopy(counts, position, counts, position + 1, childCount - position);
+            children[position] = child;
+            counts[position] = child.size;
+            childCount++;
+            size += child.size;
+        }
+
+        @Override
+        int getEntryCount() {
+            return childCount;
+        }
+
+        @Override
+        void absorb(Node nextNode) {
+            Inner nextInner = (Inner) nextNode;
+            for (int i = 0; i < nextInner.childCount; i++) {
+                insertChild(childCount, nextInner.children[i]);
+            }
+        }
+    }
+
+    /**
+     * Walks the linked leaves in order.
+     */
+    private class LeafIterator implements Iterator<E> {
+        private final int expectedModCount = modCount;
+        private Leaf leaf;
+        private int position;
+
+        private LeafIterator() {
+            Node node = root;
+            while (node instanceof Inner) {
+                node = ((Inner) node).children[0];
+            }
+            leaf = (Leaf) node;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (leaf != null && position == leaf.count) {
+                leaf = leaf.next;
+                position = 0;
+            }
+            return leaf != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (E) leaf.items[position++];
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package hal;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts task dates and times to and from compact representations.
+ * Task times only have minute resolution, so they are stored as minutes since the epoch in UTC.
+ */
+public final class DateTimeCodec {
+    /** The value returned when a date and time cannot be decoded. */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final int SECONDS_PER_MINUTE = 60;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int MINUTES_PER_DAY = 24 * MINUTES_PER_HOUR;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int MONTHS_PER_YEAR = 12;
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+    private static final int ISO_LENGTH = 16;
+    private static final int INPUT_LENGTH = 15;
+    private static final int MAX_INPUT_YEAR = 9999;
+    private static final int MAX_DAY_OF_MONTH = 31;
+
+    private DateTimeCodec() {
+    }
+
+    /**
+     * Returns the number of minutes between the epoch and the given date and time.
+     *
+     * @param dateTime The date and time to convert.
+     * @return The epoch minute.
+     */
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        assert dateTime != null : "Date and time should not be null";
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_MINUTE);
+    }
+
+    /**
+     * Returns the date and time that is the given number of minutes after the epoch.
+     *
+     * @param epochMinute The epoch minute to convert.
+     * @return The date and time.
+     */
+    public static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * SECONDS_PER_MINUTE, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Decodes a date and time in the {@code yyyy-MM-ddTHH:mm} shape written by the task file format,
+     * without allocating or throwing.
+     *
+     * @param text The text holding the date and time.
+     * @param start The index of the first character.
+     * @param end The index after the last character.
+     * @return The epoch minute, or {@link #INVALID} if the text is not a valid date and time.
+     */
+    public static long parseIsoMinute(CharSequence text, int start, int end) {
+        if (end - start != ISO_LENGTH || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-'
+                || text.charAt(start + 10) != 'T' || text.charAt(start + 13) != ':') {
+            return INVALID;
+        }
+        int year = parseDigits(text, start, 4);
+        int month = parseDigits(text, start + 5, 2);
+        int day = parseDigits(text, start + 8, 2);
+        int hour = parseDigits(text, start + 11, 2);
+        int minute = parseDigits(text, start + 14, 2);
+        return toEpochMinute(year, month, day, hour, minute);
+    }
+
+    /**
+     * Parses a date and time in the {@code dd/MM/yyyy HHmm} format that users type, without allocating or throwing.
+     * It accepts exactly what {@code LocalDateTime.parse} accepts with that pattern: a day past the end of its
+     * month means the last day of the month, and {@code 2400} means midnight at the end of the day.
+     *
+     * @param text The text holding the date and time.
+     * @return The epoch minute, or {@link #INVALID} if the text is not a valid date and time.
+     */
+    public static long parseInputMinute(CharSequence text) {
+        if (text.length() != INPUT_LENGTH || text.charAt(2) != '/' || text.charAt(5) != '/'
+                || text.charAt(10) != ' ') {
+            return INVALID;
+        }
+        int day = parseDigits(text, 0, 2);
+        int month = parseDigits(text, 3, 2);
+        int year = parseDigits(text, 6, 4);
+        int hour = parseDigits(text, 11, 2);
+        int minute = parseDigits(text, 13, 2);
+        if (year < 1 || year > MAX_INPUT_YEAR || month < 1 || month > MONTHS_PER_YEAR
+                || day < 1 || day > MAX_DAY_OF_MONTH) {
+            return INVALID;
+        }
+        day = Math.min(day, lengthOfMonth(year, month));
+        if (hour == HOURS_PER_DAY && minute == 0) {
+            return toEpochMinute(year, month, day, 0, 0) + MINUTES_PER_DAY;
+        }
+        return toEpochMinute(year, month, day, hour, minute);
+    }
+
+    /**
+     * Parses a date and time in the {@code dd/MM/yyyy HHmm} format for a constructor, which cannot return a status.
+     *
+     * @param text The text holding the date and time.
+     * @return The epoch minute.
+     * @throws DateTimeParseException If the text is not a valid date and time.
+     */
+    static long requireInputMinute(String text) {
+        long epochMinute = parseInputMinute(text);
+        if (epochMinute == INVALID) {
+            throw new DateTimeParseException("Text '" + text + "' could not be parsed", text, 0);
+        }
+        return epochMinute;
+    }
+
+    /**
+     * Returns the epoch minute of the given date and time fields.
+     *
+     * @param year The year, from 0 to 9999.
+     * @param month The month of the year, from 1 to 12.
+     * @param day The day of the month.
+     * @param hour The hour of the day, from 0 to 23.
+     * @param minute The minute of the hour, from 0 to 59.
+     * @return The epoch minute, or {@link #INVALID} if any field is negative or out of range.
+     */
+    static long toEpochMinute(int year, int month, int day, int hour, int minute) {
+        if (year < 0 || month < 1 || month > MONTHS_PER_YEAR || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour >= HOURS_PER_DAY || minute < 0 || minute >= MINUTES_PER_HOUR) {
+            return INVALID;
+        }
+        return toEpochDay(year, month, day) * MINUTES_PER_DAY + hour * MINUTES_PER_HOUR + minute;
+    }
+
+    private static int parseDigits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+        case 2:
+            return isLeapYear(year) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    // Same calculation as LocalDate.toEpochDay, for non-negative years
+    private static long toEpochDay(int year, int month, int day) {
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / MONTHS_PER_YEAR;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
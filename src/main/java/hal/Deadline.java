@@ -2,13 +2,15 @@ package hal;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 /**
  * Represents a task with a specific deadline.
+ * Times are entered to the minute, so the deadline is held as an epoch minute and only turned into a
+ * LocalDateTime when it is shown or saved.
  */
 public class Deadline extends Task {
-    protected LocalDateTime by;
-    private static final DateTimeFormatter INPUT_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HHmm");
+    private final long byMinute;
     private static final DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy, ha");
 
     /**
@@ -16,10 +18,21 @@ public class Deadline extends Task {
      *
      * @param description The description of the deadline task.
      * @param by The deadline in "dd/MM/yyyy HHmm" format.
+     * @throws DateTimeParseException If the deadline is not a valid date and time.
      */
     public Deadline(String description, String by) {
+        this(description, DateTimeCodec.requireInputMinute(by));
+    }
+
+    /**
+     * Constructs a Deadline with the given description and deadline, for callers that parsed the deadline already.
+     *
+     * @param description The description of the deadline task.
+     * @param byMinute The deadline as an epoch minute.
+     */
+    Deadline(String description, long byMinute) {
         super(description, TaskType.DEADLINE);
-        this.by = LocalDateTime.parse(by, INPUT_FORMATTER);
+        this.byMinute = byMinute;
     }
 
     /**
@@ -30,7 +43,39 @@ public class Deadline extends Task {
      */
     public Deadline(String description, LocalDateTime by) {
         super(description, TaskType.DEADLINE);
-        this.by = by;
+        this.byMinute = DateTimeCodec.toEpochMinute(by);
+    }
+
+    /**
+     * Constructs a Deadline loaded from a data file, whose description is decoded on first use.
+     *
+     * @param rawText The text holding the description.
+     * @param descriptionStart The index of the first character of the description.
+     * @param descriptionEnd The index after the last character of the description.
+     * @param byMinute The deadline as an epoch minute.
+     */
+    Deadline(String rawText, int descriptionStart, int descriptionEnd, long byMinute) {
+        super(TaskType.DEADLINE, rawText, descriptionStart, descriptionEnd);
+        this.byMinute = byMinute;
+    }
+
+    /**
+     * Returns the deadline of this task.
+     * A new LocalDateTime is created on each call, so callers that only compare times should use the epoch minute.
+     *
+     * @return The deadline as a LocalDateTime.
+     */
+    public LocalDateTime getBy() {
+        return DateTimeCodec.fromEpochMinute(byMinute);
+    }
+
+    /**
+     * Returns the deadline of this task as an epoch minute, without creating a LocalDateTime.
+     *
+     * @return The deadline as an epoch minute.
+     */
+    long getByMinute() {
+        return byMinute;
     }
 
     /**
@@ -40,18 +85,18 @@ public class Deadline extends Task {
      */
     @Override
     public String toFileFormat() {
-        return "D | " + super.toFileFormat() + " | " + by;
+        return "D | " + super.toFileFormat() + " | " + getBy();
     }
 
     /**
-     * Returns a string representation of this deadline.
+     * Builds the line shown for this deadline.
      *
      * @return A formatted string showing the deadline type and time.
      */
     @Override
-    public String toString() {
-        return "[D]" + super.toString() + " (by: " 
-                + by.format(OUTPUT_FORMATTER).toLowerCase() + ")";
+    protected String render() {
+        return "[D]" + super.render() + " (by: " 
+                + getBy().format(OUTPUT_FORMATTER).toLowerCase() + ")";
     }
 
     /**
@@ -70,16 +115,16 @@ public class Deadline extends Task {
             return false;
         }
         Deadline other = (Deadline) obj;
-        return by.equals(other.by);
+        return byMinute == other.byMinute;
     }
 
     /**
-     * Returns the hash code for this deadline.
+     * Computes the hash code for this deadline.
      *
      * @return The hash code based on the description and deadline time.
      */
     @Override
-    public int hashCode() {
-        return super.hashCode() + by.hashCode();
+    protected int computeHash() {
+        return super.computeHash() + Long.hashCode(byMinute);
     }
 }
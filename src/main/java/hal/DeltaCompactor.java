@@ -0,0 +1,71 @@
+package hal;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs delta compactions one at a time on a background thread,
+ * so that commands can keep being processed while deltas are folded into the base snapshot.
+ * Its methods are synchronized, since writes may come from the write-behind flusher as well as commands.
+ */
+public class DeltaCompactor {
+    private final ExecutorService executor;
+    private Future<?> runningCompaction;
+
+    /**
+     * Constructs a DeltaCompactor with its own daemon thread.
+     */
+    public DeltaCompactor() {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hal-delta-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a compaction in the background.
+     * The previous compaction must have finished before a new one is started.
+     *
+     * @param compaction The work that folds the deltas into the base snapshot.
+     */
+    public synchronized void start(Runnable compaction) {
+        assert compaction != null : "Compaction should not be null";
+        assert !isRunning() : "Only one compaction should run at a time";
+        runningCompaction = executor.submit(compaction);
+    }
+
+    /**
+     * Returns whether a compaction has been started and has not yet finished.
+     *
+     * @return True if a compaction is running, false otherwise.
+     */
+    public synchronized boolean isRunning() {
+        return runningCompaction != null && !runningCompaction.isDone();
+    }
+
+    /**
+     * Waits for the running compaction, if any, to finish.
+     *
+     * @throws HalException If the compaction failed or the wait was interrupted.
+     */
+    public synchronized void await() throws HalException {
+        if (runningCompaction == null) {
+            return;
+        }
+        try {
+            runningCompaction.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof HalException
+                    ? (HalException) e.getCause()
+                    : new HalException("Error: Could not compact data file!");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HalException("Error: Interrupted while compacting data file!");
+        } finally {
+            runningCompaction = null;
+        }
+    }
+}
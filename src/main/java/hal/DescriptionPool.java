@@ -0,0 +1,77 @@
+package hal;
+
+import java.util.HashMap;
+
+/**
+ * Shares one copy of each task description, and of its lowercase form, among all the tasks that have it.
+ * Task lists often repeat a description with only the time changing, so holding one string per distinct
+ * description instead of one per task saves most of the memory the descriptions take. The lowercase form
+ * used by searches and the search indexes is also computed once per description instead of on every use.
+ * Each description is counted, so it leaves the pool once no task has it any more.
+ */
+public class DescriptionPool {
+    private final HashMap<String, Entry> entries;
+
+    /**
+     * Constructs an empty DescriptionPool.
+     */
+    public DescriptionPool() {
+        this.entries = new HashMap<>();
+    }
+
+    /**
+     * Makes a task use the pooled copies of its description and lowercase description,
+     * adding them to the pool if no other task has the description.
+     *
+     * @param task The task to intern.
+     */
+    public void intern(Task task) {
+        assert task != null : "Task to intern should not be null";
+        String description = task.getDescription();
+        Entry entry = entries.get(description);
+        if (entry == null) {
+            entry = new Entry(description, description.toLowerCase());
+            entries.put(description, entry);
+        }
+        entry.count++;
+        task.useDescription(entry.description, entry.lowerDescription);
+    }
+
+    /**
+     * Records that an interned task is gone, dropping its description from the pool if no other task has it.
+     *
+     * @param task The task that was interned.
+     */
+    public void release(Task task) {
+        assert task != null : "Task to release should not be null";
+        String description = task.getDescription();
+        Entry entry = entries.get(description);
+        assert entry != null && entry.count > 0 : "Released task should have been interned";
+        if (entry != null && --entry.count == 0) {
+            entries.remove(description);
+        }
+    }
+
+    /**
+     * Returns the number of distinct descriptions in the pool.
+     *
+     * @return The description count.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * A pooled description, its lowercase form and the number of tasks that have it.
+     */
+    private static class Entry {
+        private final String description;
+        private final String lowerDescription;
+        private int count;
+
+        private Entry(String description, String lowerDescription) {
+            this.description = description;
+            this.lowerDescription = lowerDescription;
+        }
+    }
+}
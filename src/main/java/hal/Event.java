@@ -2,14 +2,16 @@ package hal;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 /**
  * Represents an event with a start and end time.
+ * Times are entered to the minute, so they are held as epoch minutes and only turned into LocalDateTimes
+ * when they are shown or saved.
  */
 public class Event extends Task {
-    protected LocalDateTime from;
-    protected LocalDateTime to;
-    private static final DateTimeFormatter INPUT_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HHmm");
+    private final long fromMinute;
+    private final long toMinute;
     private static final DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern("MMM dd yyyy, ha");
 
     /**
@@ -18,11 +20,23 @@ public class Event extends Task {
      * @param description The description of the event.
      * @param from The start time in "dd/MM/yyyy HHmm" format.
      * @param to The end time in "dd/MM/yyyy HHmm" format.
+     * @throws DateTimeParseException If either time is not a valid date and time.
      */
     public Event(String description, String from, String to) {
+        this(description, DateTimeCodec.requireInputMinute(from), DateTimeCodec.requireInputMinute(to));
+    }
+
+    /**
+     * Constructs an Event with the given description and time range, for callers that parsed the times already.
+     *
+     * @param description The description of the event.
+     * @param fromMinute The start time as an epoch minute.
+     * @param toMinute The end time as an epoch minute.
+     */
+    Event(String description, long fromMinute, long toMinute) {
         super(description, TaskType.EVENT);
-        this.from = LocalDateTime.parse(from, INPUT_FORMATTER);
-        this.to = LocalDateTime.parse(to, INPUT_FORMATTER);
+        this.fromMinute = fromMinute;
+        this.toMinute = toMinute;
     }
 
     /**
@@ -34,8 +48,61 @@ public class Event extends Task {
      */
     public Event(String description, LocalDateTime from, LocalDateTime to) {
         super(description, TaskType.EVENT);
-        this.from = from;
-        this.to = to;
+        this.fromMinute = DateTimeCodec.toEpochMinute(from);
+        this.toMinute = DateTimeCodec.toEpochMinute(to);
+    }
+
+    /**
+     * Constructs an Event loaded from a data file, whose description is decoded on first use.
+     *
+     * @param rawText The text holding the description.
+     * @param descriptionStart The index of the first character of the description.
+     * @param descriptionEnd The index after the last character of the description.
+     * @param fromMinute The start time as an epoch minute.
+     * @param toMinute The end time as an epoch minute.
+     */
+    Event(String rawText, int descriptionStart, int descriptionEnd, long fromMinute, long toMinute) {
+        super(TaskType.EVENT, rawText, descriptionStart, descriptionEnd);
+        this.fromMinute = fromMinute;
+        this.toMinute = toMinute;
+    }
+
+    /**
+     * Returns the start time of this event.
+     * A new LocalDateTime is created on each call, so callers that only compare times should use the epoch minute.
+     *
+     * @return The start time as a LocalDateTime.
+     */
+    public LocalDateTime getFrom() {
+        return DateTimeCodec.fromEpochMinute(fromMinute);
+    }
+
+    /**
+     * Returns the end time of this event.
+     * A new LocalDateTime is created on each call, so callers that only compare times should use the epoch minute.
+     *
+     * @return The end time as a LocalDateTime.
+     */
+    public LocalDateTime getTo() {
+        return DateTimeCodec.fromEpochMinute(toMinute);
+    }
+
+    /**
+     * Returns the start time of this event as an epoch minute, without creating a LocalDateTime.
+     *
+     * @return The start time as an epoch minute.
+     */
+    long getFromMinute() {
+        return fromMinute;
+    }
+
+    /**
+     * Returns the end time of this event as an epoch minute, without creating a LocalDateTime.
+     *
+     * @return The end time as an epoch minute.
+     */
+    long getToMinute() {
+        return toMinute;
     }
 
     /**
@@ -45,19 +112,19 @@ public class Event extends Task {
      */
     @Override
     public String toFileFormat() {
-        return "E | " + super.toFileFormat() + " | " + from + " | " + to;
+        return "E | " + super.toFileFormat() + " | " + getFrom() + " | " + getTo();
     }
 
     /**
-     * Returns a string representation of this event.
+     * Builds the line shown for this event.
      *
      * @return A formatted string showing the event type, start time, and end time.
      */
     @Override
-    public String toString() {
-        return "[E]" + super.toString() + " (from: " 
-                + from.format(OUTPUT_FORMATTER).toLowerCase() + " to: " 
-                + to.format(OUTPUT_FORMATTER).toLowerCase() + ")";
+    protected String render() {
+        return "[E]" + super.render() + " (from: " 
+                + getFrom().format(OUTPUT_FORMATTER).toLowerCase() + " to: " 
+                + getTo().format(OUTPUT_FORMATTER).toLowerCase() + ")";
     }
 
     /**
@@ -76,16 +143,16 @@ public class Event extends Task {
             return false;
         }
         Event other = (Event) obj;
-        return from.equals(other.from) && to.equals(other.to);
+        return fromMinute == other.fromMinute && toMinute == other.toMinute;
     }
 
     /**
-     * Returns the hash code for this event.
+     * Computes the hash code for this event.
      *
      * @return The hash code based on the description, start time, and end time.
      */
     @Override
-    public int hashCode() {
-        return super.hashCode() + from.hashCode() + to.hashCode();
+    protected int computeHash() {
+        return super.computeHash() + Long.hashCode(fromMinute) + 31 * Long.hashCode(toMinute);
     }
 }
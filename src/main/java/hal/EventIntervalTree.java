@@ -0,0 +1,224 @@
+package hal;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Keeps events in a balanced search tree ordered by start time, where every node also records
+ * the latest end time in its subtree. A search for the events overlapping a period can then skip
+ * every subtree that ends before the period starts, so it takes O(log N + k) instead of a scan.
+ * The tree is a treap: nodes get random priorities and are rotated to keep them in heap order,
+ * which keeps the tree balanced in expectation without any rebalancing cases.
+ * Each event takes up the minutes from its start up to but not including its end, so an event
+ * that ends as another starts does not overlap it. An event that ends at or before its start
+ * takes up its start minute.
+ */
+public class EventIntervalTree {
+    private final Random random;
+    private Node root;
+    private int size;
+
+    /**
+     * Constructs an empty EventIntervalTree.
+     */
+    public EventIntervalTree() {
+        this.random = new Random();
+    }
+
+    /**
+     * Adds an event to the tree.
+     *
+     * @param event The event to add, which must already have its ID.
+     */
+    public void add(Event event) {
+        root = insert(root, new Node(event, random.nextInt()));
+        size++;
+    }
+
+    /**
+     * Removes an event from the tree.
+     *
+     * @param event The event to remove.
+     */
+    public void remove(Event event) {
+        root = delete(root, event.getFromMinute(), event.getId());
+    }
+
+    /**
+     * Returns the number of events in the tree.
+     *
+     * @return The number of events.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the events that overlap the given event, not counting the event itself.
+     *
+     * @param event The event to check.
+     * @return The overlapping events in order of start time.
+     */
+    public ArrayList<Task> findOverlapping(Event event) {
+        ArrayList<Task> overlappingEvents = new ArrayList<>();
+        long from = event.getFromMinute();
+        collectOverlapping(root, from, getEndMinute(from, event.getToMinute()), overlappingEvents);
+        overlappingEvents.removeIf(overlappingEvent -> overlappingEvent.getId() == event.getId());
+        return overlappingEvents;
+    }
+
+    /**
+     * Returns every pair of events that overlap each other.
+     * The events are swept in order of start time, and each one is paired with the events that
+     * start before it ends, so this takes O(N + k) rather than comparing every pair.
+     *
+     * @return The overlapping pairs, each with the earlier event first, in order of start time.
+     */
+    public ArrayList<Event[]> findConflicts() {
+        ArrayList<Node> nodes = new ArrayList<>(size);
+        collectInOrder(root, nodes);
+        ArrayList<Event[]> conflicts = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            for (int j = i + 1; j < nodes.size() && nodes.get(j).from < node.end; j++) {
+                conflicts.add(new Event[] {node.event, nodes.get(j).event});
+            }
+        }
+        return conflicts;
+    }
+
+    private Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (Node.compare(newNode.from, newNode.id, node.from, node.id) < 0) {
+            node.left = insert(node.left, newNode);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, newNode);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node delete(Node node, long from, long id) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = Node.compare(from, id, node.from, node.id);
+        if (comparison < 0) {
+            node.left = delete(node.left, from, id);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, from, id);
+        } else if (node.left == null) {
+            size--;
+            return node.right;
+        } else if (node.right == null) {
+            size--;
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            // Rotate the node down towards a leaf, where it can be unlinked
+            node = rotateRight(node);
+            node.right = delete(node.right, from, id);
+        } else {
+            node = rotateLeft(node);
+            node.left = delete(node.left, from, id);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node newRoot = node.left;
+        node.left = newRoot.right;
+        newRoot.right = node;
+        node.update();
+        newRoot.update();
+        return newRoot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node newRoot = node.right;
+        node.right = newRoot.left;
+        newRoot.left = node;
+        node.update();
+        newRoot.update();
+        return newRoot;
+    }
+
+    private static void collectOverlapping(Node node, long from, long end, ArrayList<Task> overlappingEvents) {
+        while (node != null && node.maxEnd > from) {
+            collectOverlapping(node.left, from, end, overlappingEvents);
+            if (node.from >= end) {
+                // This node and everything to its right start after the period ends
+                return;
+            }
+            if (node.end > from) {
+                overlappingEvents.add(node.event);
+            }
+            node = node.right;
+        }
+    }
+
+    private static void collectInOrder(Node node, ArrayList<Node> nodes) {
+        while (node != null) {
+            collectInOrder(node.left, nodes);
+            nodes.add(node);
+            node = node.right;
+        }
+    }
+
+    /**
+     * Returns the minute after the last minute an event takes up.
+     *
+     * @param fromMinute The start of the event as an epoch minute.
+     * @param toMinute The end of the event as an epoch minute.
+     * @return The end of the event, or the minute after its start if it ends at or before it starts.
+     */
+    static long getEndMinute(long fromMinute, long toMinute) {
+        return Math.max(toMinute, fromMinute + 1);
+    }
+
+    /**
+     * A tree node holding one event, ordered by start time and then by ID.
+     */
+    private static class Node {
+        private final Event event;
+        private final long from;
+        private final long end;
+        private final long id;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(Event event, int priority) {
+            this.event = event;
+            this.from = event.getFromMinute();
+            this.end = getEndMinute(event.getFromMinute(), event.getToMinute());
+            this.id = event.getId();
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            maxEnd = end;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+            }
+        }
+
+        private static int compare(long from, long id, long otherFrom, long otherId) {
+            int comparison = Long.compare(from, otherFrom);
+            return comparison != 0 ? comparison : Long.compare(id, otherId);
+        }
+    }
+}
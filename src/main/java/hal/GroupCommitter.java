@@ -0,0 +1,147 @@
+package hal;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Saves task snapshots durably, so a crash leaves either the old file or the new one but never a partial file.
+ * Each snapshot is written to a temporary file, forced to disk and then atomically moved over the target.
+ * Saves that arrive while another is being forced are grouped: the newest snapshot among them is written once,
+ * and a single fsync commits all of them.
+ */
+public class GroupCommitter {
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Writes tasks to a stream in a storage file format.
+     */
+    public interface TaskWriter {
+        /**
+         * Writes all tasks to the stream.
+         *
+         * @param out The stream to write to.
+         * @param tasks The tasks to write.
+         * @throws IOException If the tasks cannot be written.
+         */
+        void write(OutputStream out, Task... tasks) throws IOException;
+    }
+
+    private final Path path;
+    private final Path tempPath;
+    private final TaskWriter writer;
+    private Group openGroup;
+    private boolean isCommitting;
+
+    /**
+     * Constructs a GroupCommitter that saves to the specified file.
+     *
+     * @param path The file to save to.
+     * @param writer The format in which tasks are written.
+     */
+    public GroupCommitter(Path path, TaskWriter writer) {
+        assert path != null && writer != null : "Path and writer should not be null";
+        this.path = path;
+        this.tempPath = Path.of(path + TEMP_SUFFIX);
+        this.writer = writer;
+        this.openGroup = new Group();
+    }
+
+    /**
+     * Saves the tasks durably and returns once they are on disk.
+     * If other saves are waiting at the same time, only the newest of them is written.
+     *
+     * @param tasks The tasks to save.
+     * @throws HalException If the group this save joined could not be committed.
+     */
+    public void commit(Task... tasks) throws HalException {
+        Group group;
+        synchronized (this) {
+            group = openGroup;
+            group.tasks = tasks;
+            while (isCommitting && !group.isDone) {
+                waitForCommit();
+            }
+            if (group.isDone) {
+                group.throwFailure();
+                return;
+            }
+            // This caller leads the group: later callers join a new group while this one is forced
+            isCommitting = true;
+            openGroup = new Group();
+        }
+        HalException failure = null;
+        try {
+            writeDurably(group.tasks);
+        } catch (IOException e) {
+            failure = new HalException("Error: Could not save data to file!");
+        }
+        synchronized (this) {
+            group.failure = failure;
+            group.isDone = true;
+            isCommitting = false;
+            notifyAll();
+        }
+        group.throwFailure();
+    }
+
+    private void waitForCommit() throws HalException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HalException("Error: Interrupted while saving data!");
+        }
+    }
+
+    private void writeDurably(Task... tasks) throws IOException {
+        File directory = path.toFile().getParentFile();
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            writer.write(out, tasks);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(directory);
+    }
+
+    // Makes the rename itself durable where the platform allows directories to be opened
+    private static void forceDirectory(File directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform, and the data file itself is already on disk
+        }
+    }
+
+    /**
+     * Saves that are committed together by one write and one fsync.
+     */
+    private static class Group {
+        private Task[] tasks;
+        private boolean isDone;
+        private HalException failure;
+
+        private void throwFailure() throws HalException {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
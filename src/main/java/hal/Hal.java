@@ -1,6 +1,11 @@
 package hal;
 
-import java.time.format.DateTimeParseException;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
 import java.util.ArrayList;
 
 /**
@@ -8,6 +13,10 @@ import java.util.ArrayList;
  */
 public class Hal {
     private static final String DEFAULT_FILE_PATH = "./data/hal.txt";
+    // Longer lists and search results only show their first page unless a page is asked for
+    private static final int MAX_UNPAGED_TASKS = 1_000;
+    private static final int CLI_BUFFER_SIZE = 1 << 16;
+    private static final int LIST_COMMAND_LENGTH = 4;
     private static final int MARK_COMMAND_LENGTH = 4;
     private static final int UNMARK_COMMAND_LENGTH = 6;
     private static final int DELETE_COMMAND_LENGTH = 6;
@@ -15,6 +24,8 @@ public class Hal {
     private static final int DEADLINE_COMMAND_LENGTH = 8;
     private static final int EVENT_COMMAND_LENGTH = 5;
     private static final int FIND_COMMAND_LENGTH = 4;
+    private static final int DUE_COMMAND_LENGTH = 3;
+    private static final int BETWEEN_COMMAND_LENGTH = 7;
     
     private Storage storage;
     private TaskList tasks;
@@ -28,13 +39,25 @@ public class Hal {
      */
     public Hal(String filePath) {
         assert filePath != null : "File path should not be null";
-        ui = new Ui();
-        storage = new Storage(filePath);
-        tasks = new TaskList();
-        parser = new Parser();
+        if (HalConfig.isBufferedCliEnabled()) {
+            ui = new Ui(new PrintStream(
+                    new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), CLI_BUFFER_SIZE), false));
+            parser = new Parser(new BufferedReader(new InputStreamReader(System.in), CLI_BUFFER_SIZE));
+        } else {
+            ui = new Ui();
+            parser = new Parser();
+        }
+        storage = new Storage(filePath, HalConfig.getStorageMode());
+        tasks = createTaskList();
         assert ui != null && storage != null && tasks != null && parser != null 
                 : "All components should be initialized";
         loadTasks();
+        if (HalConfig.isDurableSaveEnabled()) {
+            storage.enableDurableSaves();
+        }
+        if (HalConfig.isWriteBehindEnabled()) {
+            storage.enableWriteBehind(HalConfig.getWriteBehindDelay(), HalConfig.getWriteBehindBatch());
+        }
     }
 
     /**
@@ -44,6 +67,14 @@ public class Hal {
         this(DEFAULT_FILE_PATH);
     }
 
+    private static TaskList createTaskList() {
+        if (HalConfig.isColumnarTaskListEnabled() || HalConfig.isOffHeapEnabled()) {
+            return new ColumnarTaskList(HalConfig.isOffHeapEnabled());
+        }
+        int treeThreshold = HalConfig.isTaskTreeEnabled() ? HalConfig.getTaskTreeTasks() : Integer.MAX_VALUE;
+        return new TaskList(treeThreshold, HalConfig.isInterningEnabled());
+    }
+
     private void loadTasks() {
         try {
             for (Task task : storage.load()) {
@@ -54,9 +85,17 @@ public class Hal {
         }
     }
 
-    private void saveTasks() {
+    private void saveTasks(TaskChange change, Task task) {
+        try {
+            storage.saveChange(tasks, change, task);
+        } catch (HalException e) {
+            ui.showError(e.getMessage());
+        }
+    }
+
+    private void flushTasks() {
         try {
-            storage.save(tasks.getAllTasks());
+            storage.flush();
         } catch (HalException e) {
             ui.showError(e.getMessage());
         }
@@ -64,25 +103,35 @@ public class Hal {
 
     /**
      * Runs the main application loop for CLI mode.
+     * Buffered output is only flushed when no more input is waiting and when the loop ends,
+     * so piped commands are answered in large writes.
      */
     public void run() {
         ui.showWelcome();
         boolean isExit = false;
-        while (!isExit) {
-            String input = parser.readCommand();
-            isExit = parser.isExit(input);
-            
-            if (!isExit) {
-                try {
-                    parser.processCommand(input, tasks, ui, storage);
-                } catch (HalException e) {
-                    ui.showError(e.getMessage());
+        try {
+            while (!isExit) {
+                if (!parser.hasPendingInput()) {
+                    ui.flush();
+                }
+                String input = parser.readCommand();
+                isExit = parser.isExit(input);
+
+                if (!isExit) {
+                    try {
+                        parser.processCommand(input, tasks, ui, storage);
+                    } catch (HalException e) {
+                        ui.showError(e.getMessage());
+                    }
+                } else {
+                    flushTasks();
+                    ui.goodbye();
                 }
-            } else {
-                ui.goodbye();
             }
+        } finally {
+            ui.flush();
+            parser.close();
         }
-        parser.close();
     }
 
     /**
@@ -103,6 +152,7 @@ public class Hal {
      */
     public String getResponse(String input) {
         if (parser.isExit(input)) {
+            flushTasks();
             return ui.getGoodbye();
         }
         try {
@@ -126,7 +176,7 @@ public class Hal {
         
         switch (command) {
         case LIST:
-            return ui.getList(tasks);
+            return handleListCommandForGui(input);
         case MARK:
             return handleMarkCommandForGui(input);
         case UNMARK:
@@ -141,6 +191,15 @@ public class Hal {
             return handleEventCommandForGui(input);
         case FIND:
             return handleFindCommandForGui(input);
+        case DUE:
+            return handleDueCommandForGui(input);
+        case BETWEEN:
+            return handleBetweenCommandForGui(input);
+        case CONFLICTS:
+            return ui.getConflicts(tasks.findConflicts());
+        case EXPORT:
+            storage.exportText(tasks.getAllTasks());
+            return ui.getExported(tasks.getTaskCount(), storage.getFilePath());
         default:
             throw new HalException("Error: Please use a valid command!");
         }
@@ -149,7 +208,7 @@ public class Hal {
     private Command parseCommand(String input) {
         String lowerInput = input.toLowerCase().trim();
         
-        if (lowerInput.equals("list")) {
+        if (isCommandWithOptionalSpace(lowerInput, "list", LIST_COMMAND_LENGTH)) {
             return Command.LIST;
         } else if (isCommandWithOptionalSpace(lowerInput, "mark", MARK_COMMAND_LENGTH)) {
             return Command.MARK;
@@ -165,6 +224,14 @@ public class Hal {
             return Command.EVENT;
         } else if (isCommandWithOptionalSpace(lowerInput, "find", FIND_COMMAND_LENGTH)) {
             return Command.FIND;
+        } else if (isCommandWithOptionalSpace(lowerInput, "due", DUE_COMMAND_LENGTH)) {
+            return Command.DUE;
+        } else if (isCommandWithOptionalSpace(lowerInput, "between", BETWEEN_COMMAND_LENGTH)) {
+            return Command.BETWEEN;
+        } else if (lowerInput.equals("conflicts")) {
+            return Command.CONFLICTS;
+        } else if (lowerInput.equals("export")) {
+            return Command.EXPORT;
         } else if (lowerInput.equals("bye")) {
             return Command.BYE;
         } else {
@@ -181,6 +248,9 @@ public class Hal {
         if (indexStr.isEmpty()) {
             throw new HalException("Error: Task number is required!");
         }
+        if (indexStr.startsWith("#")) {
+            return Parser.parseTaskId(indexStr, tasks);
+        }
         try {
             int taskIndex = Integer.parseInt(indexStr) - 1;
             if (taskIndex < 0 || taskIndex >= tasks.getTaskCount()) {
@@ -196,7 +266,7 @@ public class Hal {
         String indexStr = input.trim().substring(MARK_COMMAND_LENGTH).trim();
         int taskIndex = parseAndValidateTaskIndex(indexStr);
         tasks.markTask(taskIndex);
-        saveTasks();
+        saveTasks(TaskChange.UPDATED, tasks.getTask(taskIndex));
         return ui.getTaskMarked(tasks.getTask(taskIndex));
     }
 
@@ -204,7 +274,7 @@ public class Hal {
         String indexStr = input.trim().substring(UNMARK_COMMAND_LENGTH).trim();
         int taskIndex = parseAndValidateTaskIndex(indexStr);
         tasks.unmarkTask(taskIndex);
-        saveTasks();
+        saveTasks(TaskChange.UPDATED, tasks.getTask(taskIndex));
         return ui.getTaskUnmarked(tasks.getTask(taskIndex));
     }
 
@@ -212,7 +282,7 @@ public class Hal {
         String indexStr = input.trim().substring(DELETE_COMMAND_LENGTH).trim();
         int taskIndex = parseAndValidateTaskIndex(indexStr);
         Task deletedTask = tasks.deleteTask(taskIndex);
-        saveTasks();
+        saveTasks(TaskChange.DELETED, deletedTask);
         return ui.getTaskDeleted(deletedTask, tasks.getTaskCount());
     }
 
@@ -249,11 +319,11 @@ public class Hal {
             throw new HalException("Error: Deadline time cannot be empty!");
         }
         
-        try {
-            return createAndAddTask(new Deadline(description, by));
-        } catch (DateTimeParseException e) {
+        long byMinute = DateTimeCodec.parseInputMinute(by);
+        if (byMinute == DateTimeCodec.INVALID) {
             throw new HalException("Error: Invalid date format! Please use dd/MM/yyyy HHmm format.\nExample: deadline Submit assignment /by 15/02/2026 2359");
         }
+        return createAndAddTask(new Deadline(description, byMinute));
     }
 
     private void validateNonEmptyDescription(String description, String taskType) {
@@ -266,7 +336,7 @@ public class Hal {
         if (!tasks.addTask(task)) {
             return ui.getDuplicateWarning(task);
         }
-        saveTasks();
+        saveTasks(TaskChange.ADDED, task);
         return ui.getTaskAdded(task, tasks.getTaskCount());
     }
 
@@ -289,19 +359,60 @@ public class Hal {
             throw new HalException("Error: Event time cannot be empty!");
         }
         
-        try {
-            return createAndAddTask(new Event(description, from, to));
-        } catch (DateTimeParseException e) {
+        long fromMinute = DateTimeCodec.parseInputMinute(from);
+        long toMinute = DateTimeCodec.parseInputMinute(to);
+        if (fromMinute == DateTimeCodec.INVALID || toMinute == DateTimeCodec.INVALID) {
             throw new HalException("Error: Invalid date format! Please use dd/MM/yyyy HHmm format.\nExample: event Team meeting /from 12/02/2026 1400 /to 12/02/2026 1600");
         }
+        Event event = new Event(description, fromMinute, toMinute);
+        if (!tasks.addTask(event)) {
+            return ui.getDuplicateWarning(event);
+        }
+        saveTasks(TaskChange.ADDED, event);
+        String response = ui.getTaskAdded(event, tasks.getTaskCount());
+        ArrayList<Task> overlappingEvents = tasks.findOverlappingEvents(event);
+        if (!overlappingEvents.isEmpty()) {
+            response += "\n" + ui.getOverlapWarning(overlappingEvents);
+        }
+        return response;
+    }
+
+    private String handleListCommandForGui(String input) {
+        String arguments = input.trim().substring(LIST_COMMAND_LENGTH).trim();
+        if (!arguments.isEmpty()) {
+            int[] page = Parser.parsePage(arguments, tasks.getTaskCount());
+            return ui.getListPage(tasks, page[0], page[1]);
+        }
+        if (tasks.getTaskCount() > MAX_UNPAGED_TASKS) {
+            return ui.getListPage(tasks, 1, Parser.DEFAULT_PAGE_SIZE);
+        }
+        return ui.getList(tasks);
     }
 
     private String handleFindCommandForGui(String input) {
-        String keyword = input.trim().substring(FIND_COMMAND_LENGTH).trim();
+        String[] queryAndPage = Parser.splitPageOption(input.trim().substring(FIND_COMMAND_LENGTH).trim());
+        String keyword = queryAndPage[0];
         if (keyword.isEmpty()) {
             throw new HalException("Error: Please provide a keyword to search for!");
         }
-        ArrayList<Task> foundTasks = tasks.findTasks(keyword);
+        ArrayList<Task> foundTasks = tasks.searchTasks(keyword);
+        if (queryAndPage[1] != null) {
+            int[] page = Parser.parsePage(queryAndPage[1], foundTasks.size());
+            return ui.getFoundTasks(foundTasks, page[0], page[1]);
+        }
+        if (foundTasks.size() > MAX_UNPAGED_TASKS) {
+            return ui.getFoundTasks(foundTasks, 1, Parser.DEFAULT_PAGE_SIZE);
+        }
         return ui.getFoundTasks(foundTasks);
     }
+
+    private String handleDueCommandForGui(String input) {
+        long[] period = Parser.parseDuePeriod(input.trim().substring(DUE_COMMAND_LENGTH).trim());
+        return ui.getScheduledTasks(tasks.findTasksDue(period[0], period[1]));
+    }
+
+    private String handleBetweenCommandForGui(String input) {
+        long[] period = Parser.parseBetweenPeriod(input.trim().substring(BETWEEN_COMMAND_LENGTH).trim());
+        return ui.getScheduledTasks(tasks.findTasksDue(period[0], period[1]));
+    }
 }
@@ -0,0 +1,221 @@
+package hal;
+
+/**
+ * Reads optional settings for Hal from JVM system properties.
+ * Settings that are missing or invalid fall back to their defaults.
+ */
+public final class HalConfig {
+    private static final String STORAGE_MODE_PROPERTY = "hal.storage.mode";
+    private static final String JOURNAL_CHECKPOINT_PROPERTY = "hal.journal.checkpoint";
+    private static final String DELTA_COMPACT_RECORDS_PROPERTY = "hal.delta.compact.records";
+    private static final String DELTA_COMPACT_BYTES_PROPERTY = "hal.delta.compact.bytes";
+    private static final String DELTA_MAX_REPLAY_PROPERTY = "hal.delta.max.replay";
+    private static final String PARALLEL_LOAD_BYTES_PROPERTY = "hal.load.parallel.bytes";
+    private static final String PARALLEL_SAVE_TASKS_PROPERTY = "hal.save.parallel.tasks";
+    private static final String DURABLE_PROPERTY = "hal.storage.durable";
+    private static final String WRITE_BEHIND_PROPERTY = "hal.writebehind";
+    private static final String WRITE_BEHIND_DELAY_PROPERTY = "hal.writebehind.delay";
+    private static final String WRITE_BEHIND_BATCH_PROPERTY = "hal.writebehind.batch";
+    private static final String TASK_TREE_PROPERTY = "hal.tasklist.tree";
+    private static final String TASK_TREE_TASKS_PROPERTY = "hal.tasklist.tree.tasks";
+    private static final String COLUMNAR_PROPERTY = "hal.tasklist.columnar";
+    private static final String OFF_HEAP_PROPERTY = "hal.tasklist.offheap";
+    private static final String INTERN_PROPERTY = "hal.tasklist.intern";
+    private static final String RENDER_CACHE_PROPERTY = "hal.render.cache";
+    private static final String BUFFERED_CLI_PROPERTY = "hal.cli.buffered";
+    private static final int DEFAULT_JOURNAL_CHECKPOINT = 10_000;
+    private static final int DEFAULT_DELTA_COMPACT_RECORDS = 1_000;
+    private static final int DEFAULT_DELTA_COMPACT_BYTES = 1 << 20;
+    private static final int DEFAULT_DELTA_MAX_REPLAY = 5_000;
+    private static final int DEFAULT_PARALLEL_LOAD_BYTES = 16 << 20;
+    private static final int DEFAULT_PARALLEL_SAVE_TASKS = 100_000;
+    private static final int DEFAULT_WRITE_BEHIND_DELAY = 50;
+    private static final int DEFAULT_WRITE_BEHIND_BATCH = 1_000;
+    private static final int DEFAULT_TASK_TREE_TASKS = 10_000;
+    private static final int DEFAULT_RENDER_CACHE_LINES = 10_000;
+
+    private HalConfig() {
+    }
+
+    /**
+     * Returns the storage mode set by {@code -Dhal.storage.mode}.
+     *
+     * @return The configured storage mode, or TEXT if none is set.
+     */
+    public static StorageMode getStorageMode() {
+        String value = System.getProperty(STORAGE_MODE_PROPERTY);
+        if (value == null) {
+            return StorageMode.TEXT;
+        }
+        try {
+            return StorageMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return StorageMode.TEXT;
+        }
+    }
+
+    /**
+     * Returns the number of journal records after which the journal is folded into the snapshot.
+     *
+     * @return The configured checkpoint interval.
+     */
+    public static int getJournalCheckpoint() {
+        return getPositiveInt(JOURNAL_CHECKPOINT_PROPERTY, DEFAULT_JOURNAL_CHECKPOINT);
+    }
+
+    /**
+     * Returns the number of delta records after which a background compaction is started.
+     *
+     * @return The configured record trigger.
+     */
+    public static int getDeltaCompactRecords() {
+        return getPositiveInt(DELTA_COMPACT_RECORDS_PROPERTY, DEFAULT_DELTA_COMPACT_RECORDS);
+    }
+
+    /**
+     * Returns the delta file size in bytes after which a background compaction is started.
+     *
+     * @return The configured size trigger.
+     */
+    public static int getDeltaCompactBytes() {
+        return getPositiveInt(DELTA_COMPACT_BYTES_PROPERTY, DEFAULT_DELTA_COMPACT_BYTES);
+    }
+
+    /**
+     * Returns the largest number of delta records that may have to be replayed when loading.
+     *
+     * @return The configured replay bound.
+     */
+    public static int getDeltaMaxReplay() {
+        return getPositiveInt(DELTA_MAX_REPLAY_PROPERTY, DEFAULT_DELTA_MAX_REPLAY);
+    }
+
+    /**
+     * Returns the data file size in bytes from which the file is loaded in parallel.
+     *
+     * @return The configured parallel loading threshold.
+     */
+    public static int getParallelLoadBytes() {
+        return getPositiveInt(PARALLEL_LOAD_BYTES_PROPERTY, DEFAULT_PARALLEL_LOAD_BYTES);
+    }
+
+    /**
+     * Returns the number of tasks from which a full save is encoded in parallel.
+     *
+     * @return The configured parallel saving threshold.
+     */
+    public static int getParallelSaveTasks() {
+        return getPositiveInt(PARALLEL_SAVE_TASKS_PROPERTY, DEFAULT_PARALLEL_SAVE_TASKS);
+    }
+
+    /**
+     * Returns whether full saves are forced to disk and renamed atomically, as set by
+     * {@code -Dhal.storage.durable=true}.
+     *
+     * @return True if durable saves are enabled, false otherwise.
+     */
+    public static boolean isDurableSaveEnabled() {
+        return Boolean.getBoolean(DURABLE_PROPERTY);
+    }
+
+    /**
+     * Returns whether writes are moved onto a background flusher, as set by {@code -Dhal.writebehind=true}.
+     *
+     * @return True if write-behind is enabled, false otherwise.
+     */
+    public static boolean isWriteBehindEnabled() {
+        return Boolean.getBoolean(WRITE_BEHIND_PROPERTY);
+    }
+
+    /**
+     * Returns the longest time in milliseconds a change may wait before the flusher writes it.
+     *
+     * @return The configured flush delay.
+     */
+    public static int getWriteBehindDelay() {
+        return getPositiveInt(WRITE_BEHIND_DELAY_PROPERTY, DEFAULT_WRITE_BEHIND_DELAY);
+    }
+
+    /**
+     * Returns the largest number of changes the flusher merges into one write.
+     *
+     * @return The configured batch size.
+     */
+    public static int getWriteBehindBatch() {
+        return getPositiveInt(WRITE_BEHIND_BATCH_PROPERTY, DEFAULT_WRITE_BEHIND_BATCH);
+    }
+
+    /**
+     * Returns whether large task lists are held in a counted B+tree, as set by {@code -Dhal.tasklist.tree=true}.
+     *
+     * @return True if the tree is enabled, false otherwise.
+     */
+    public static boolean isTaskTreeEnabled() {
+        return Boolean.getBoolean(TASK_TREE_PROPERTY);
+    }
+
+    /**
+     * Returns the number of tasks from which the task list is held in a counted B+tree.
+     *
+     * @return The configured tree threshold.
+     */
+    public static int getTaskTreeTasks() {
+        return getPositiveInt(TASK_TREE_TASKS_PROPERTY, DEFAULT_TASK_TREE_TASKS);
+    }
+
+    /**
+     * Returns whether tasks are held in primitive columns rather than as objects,
+     * as set by {@code -Dhal.tasklist.columnar=true}.
+     *
+     * @return True if the columnar task list is enabled, false otherwise.
+     */
+    public static boolean isColumnarTaskListEnabled() {
+        return Boolean.getBoolean(COLUMNAR_PROPERTY);
+    }
+
+    /**
+     * Returns whether task descriptions are kept outside the Java heap, as set by {@code -Dhal.tasklist.offheap=true}.
+     * This implies the columnar task list.
+     *
+     * @return True if off-heap descriptions are enabled, false otherwise.
+     */
+    public static boolean isOffHeapEnabled() {
+        return Boolean.getBoolean(OFF_HEAP_PROPERTY);
+    }
+
+    /**
+     * Returns whether task lists share one copy of each repeated description, which is on unless
+     * {@code -Dhal.tasklist.intern=false} is set.
+     *
+     * @return True if descriptions are interned, false otherwise.
+     */
+    public static boolean isInterningEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(INTERN_PROPERTY, "").trim());
+    }
+
+    /**
+     * Returns the largest number of rendered task lines kept for reuse, as set by {@code -Dhal.render.cache}.
+     *
+     * @return The configured render cache size.
+     */
+    public static int getRenderCacheLines() {
+        return getPositiveInt(RENDER_CACHE_PROPERTY, DEFAULT_RENDER_CACHE_LINES);
+    }
+
+    /**
+     * Returns whether the console reads and writes through large buffers, as set by {@code -Dhal.cli.buffered=true}.
+     *
+     * @return True if console input and output are buffered, false otherwise.
+     */
+    public static boolean isBufferedCliEnabled() {
+        return Boolean.getBoolean(BUFFERED_CLI_PROPERTY);
+    }
+
+    private static int getPositiveInt(String property, int defaultValue) {
+        Integer value = Integer.getInteger(property);
+        if (value == null || value <= 0) {
+            return defaultValue;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,40 @@
+package hal;
+
+import java.util.Arrays;
+
+/**
+ * Holds runs of bytes in one growable array on the heap, addressed by their position in it.
+ */
+public class HeapBytePool implements BytePool {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private byte[] bytes;
+    private int size;
+
+    /**
+     * Constructs an empty HeapBytePool.
+     */
+    public HeapBytePool() {
+        this.bytes = new byte[INITIAL_CAPACITY];
+    }
+
+    @Override
+    public long append(byte[] run) {
+        if (size + run.length > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(size + run.length, bytes.length + (bytes.length >> 1)));
+        }
+        System.arraycopy(run, 0, bytes, size, run.length);
+        size += run.length;
+        return size - run.length;
+    }
+
+    @Override
+    public void copy(long address, byte[] target, int length) {
+        System.arraycopy(bytes, (int) address, target, 0, length);
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+}
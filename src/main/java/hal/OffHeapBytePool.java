@@ -0,0 +1,51 @@
+package hal;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Holds runs of bytes outside the Java heap, in direct buffers called slabs, so the garbage collector
+ * never has to copy or scan them. Each run lies within a single slab, and its address holds the slab
+ * number in the upper 32 bits and the position in the slab in the lower 32 bits.
+ * The memory of a slab is released once the pool holding it is no longer reachable.
+ * Direct memory is limited by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+ */
+public class OffHeapBytePool implements BytePool {
+    private static final int SLAB_BYTES = 16 << 20;
+    private static final int SLAB_SHIFT = 32;
+
+    private final ArrayList<ByteBuffer> slabs;
+    private ByteBuffer currentSlab;
+    private long size;
+
+    /**
+     * Constructs an empty OffHeapBytePool. No memory is reserved until the first run is appended.
+     */
+    public OffHeapBytePool() {
+        this.slabs = new ArrayList<>();
+    }
+
+    @Override
+    public long append(byte[] run) {
+        if (currentSlab == null || currentSlab.remaining() < run.length) {
+            // A run longer than a slab gets a slab of its own
+            currentSlab = ByteBuffer.allocateDirect(Math.max(SLAB_BYTES, run.length));
+            slabs.add(currentSlab);
+        }
+        long address = ((long) (slabs.size() - 1) << SLAB_SHIFT) | currentSlab.position();
+        currentSlab.put(run);
+        size += run.length;
+        return address;
+    }
+
+    @Override
+    public void copy(long address, byte[] target, int length) {
+        ByteBuffer slab = slabs.get((int) (address >>> SLAB_SHIFT));
+        slab.get((int) address, target, 0, length);
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+}
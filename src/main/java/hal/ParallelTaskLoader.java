@@ -0,0 +1,166 @@
+package hal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads a task file in parallel by splitting it into byte ranges that start and end on line breaks.
+ * Each range is decoded on a {@link ForkJoinPool}, and the partial results are joined in file order,
+ * so tasks keep the positions they would have if the file were read line by line.
+ */
+public class ParallelTaskLoader {
+    private static final byte NEWLINE = '\n';
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long MIN_CHUNK_SIZE = 1 << 16;
+    private static final int ALIGN_BUFFER_SIZE = 1 << 12;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a ParallelTaskLoader that runs on the common fork/join pool.
+     */
+    public ParallelTaskLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a ParallelTaskLoader that runs on the given pool.
+     *
+     * @param pool The pool to parse chunks on.
+     */
+    public ParallelTaskLoader(ForkJoinPool pool) {
+        assert pool != null : "Pool should not be null";
+        this.pool = pool;
+    }
+
+    /**
+     * Loads all tasks from the file, skipping malformed lines.
+     *
+     * @param path The file to load.
+     * @return The tasks in file order.
+     * @throws HalException If the file cannot be read.
+     */
+    public ArrayList<Task> load(Path path) throws HalException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = splitOnLines(channel);
+            ArrayList<ChunkParser> parsers = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                if (bounds[i + 1] > bounds[i]) {
+                    parsers.add(new ChunkParser(channel, bounds[i], bounds[i + 1]));
+                }
+            }
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(parsers);
+                    return null;
+                }
+            });
+            return join(parsers);
+        } catch (IOException | RuntimeException e) {
+            throw new HalException("Error: Could not load data file!");
+        }
+    }
+
+    private long[] splitOnLines(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunkCount = (int) Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_THREAD,
+                size / MIN_CHUNK_SIZE));
+        // Mappings are limited to 2GB, so large files need enough chunks to keep each one below that
+        chunkCount = (int) Math.max(chunkCount, size / (Integer.MAX_VALUE / 2) + 1);
+        long[] bounds = new long[chunkCount + 1];
+        bounds[chunkCount] = size;
+        for (int i = 1; i < chunkCount; i++) {
+            long nominalBound = Math.max(bounds[i - 1], size / chunkCount * i);
+            bounds[i] = findLineStart(channel, nominalBound, size);
+        }
+        return bounds;
+    }
+
+    private static long findLineStart(FileChannel channel, long position, long size) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(ALIGN_BUFFER_SIZE);
+        long current = position - 1;
+        while (current < size) {
+            buffer.clear();
+            int read = channel.read(buffer, current);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == NEWLINE) {
+                    return current + i + 1;
+                }
+            }
+            current += read;
+        }
+        return size;
+    }
+
+    private static ArrayList<Task> join(ArrayList<ChunkParser> parsers) {
+        int total = 0;
+        for (ChunkParser parser : parsers) {
+            total += parser.getRawResult().size();
+        }
+        ArrayList<Task> tasks = new ArrayList<>(total);
+        for (ChunkParser parser : parsers) {
+            tasks.addAll(parser.getRawResult());
+        }
+        return tasks;
+    }
+
+    /**
+     * Decodes the lines in one byte range of the file.
+     */
+    private static class ChunkParser extends RecursiveTask<ArrayList<Task>> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        ChunkParser(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected ArrayList<Task> compute() {
+            String text;
+            try {
+                MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                text = StandardCharsets.UTF_8.decode(bytes).toString();
+            } catch (IOException e) {
+                throw new HalException("Error: Could not load data file!");
+            }
+            TaskLineCodec codec = new TaskLineCodec();
+            ArrayList<Task> tasks = new ArrayList<>();
+            int lineStart = 0;
+            while (lineStart < text.length()) {
+                int lineEnd = text.indexOf('\n', lineStart);
+                if (lineEnd == -1) {
+                    lineEnd = text.length();
+                }
+                int contentEnd = lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                Task task = codec.decode(text, lineStart, contentEnd);
+                if (task != null) {
+                    tasks.add(task);
+                }
+                lineStart = lineEnd + 1;
+            }
+            return tasks;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package hal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Saves a task file by encoding chunks of the task array in parallel.
+ * Each chunk is encoded into its own buffer on a {@link ForkJoinPool}, and the buffers are written in order
+ * with a single gathering write. Buffers are pooled and reused across saves, so repeated snapshots of a
+ * large list do not allocate new output buffers each time. A buffer that grew past a few times its initial
+ * size for an unusually large chunk is dropped instead of pooled, so its off-heap memory is not kept for good.
+ */
+public class ParallelTaskWriter {
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int MIN_CHUNK_TASKS = 1 << 12;
+    private static final int INITIAL_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_POOLED_BUFFER_SIZE = INITIAL_BUFFER_SIZE << 2;
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    private final ForkJoinPool pool;
+    private final Charset charset;
+    private final ArrayDeque<ByteBuffer> bufferPool;
+
+    /**
+     * Constructs a ParallelTaskWriter that runs on the common fork/join pool
+     * and encodes in UTF-8, the charset every storage mode reads and writes.
+     */
+    public ParallelTaskWriter() {
+        this(ForkJoinPool.commonPool(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Constructs a ParallelTaskWriter that runs on the given pool.
+     *
+     * @param pool The pool to encode chunks on.
+     * @param charset The charset to encode task lines in.
+     */
+    public ParallelTaskWriter(ForkJoinPool pool, Charset charset) {
+        assert pool != null && charset != null : "Pool and charset should not be null";
+        this.pool = pool;
+        this.charset = charset;
+        this.bufferPool = new ArrayDeque<>();
+    }
+
+    /**
+     * Writes all tasks to the file in the task file format, replacing its contents.
+     *
+     * @param path The file to write.
+     * @param tasks The tasks to write.
+     * @throws HalException If the file cannot be written.
+     */
+    public void write(Path path, Task... tasks) throws HalException {
+        int chunkCount = Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_THREAD,
+                tasks.length / MIN_CHUNK_TASKS));
+        ArrayList<ChunkEncoder> encoders = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            int start = (int) ((long) tasks.length * i / chunkCount);
+            int end = (int) ((long) tasks.length * (i + 1) / chunkCount);
+            encoders.add(new ChunkEncoder(tasks, start, end, charset.newEncoder(), takeBuffer()));
+        }
+        try {
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(encoders);
+                    return null;
+                }
+            });
+            writeGathered(path, encoders);
+        } catch (IOException | RuntimeException e) {
+            throw new HalException("Error: Could not save data to file!");
+        } finally {
+            for (ChunkEncoder encoder : encoders) {
+                releaseBuffer(encoder.buffer);
+            }
+        }
+    }
+
+    private static void writeGathered(Path path, ArrayList<ChunkEncoder> encoders) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[encoders.size()];
+        long remaining = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = encoders.get(i).getRawResult();
+            remaining += buffers[i].remaining();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+        }
+    }
+
+    private synchronized ByteBuffer takeBuffer() {
+        ByteBuffer buffer = bufferPool.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    }
+
+    private synchronized void releaseBuffer(ByteBuffer buffer) {
+        if (buffer != null && buffer.capacity() <= MAX_POOLED_BUFFER_SIZE && bufferPool.size() < MAX_POOLED_BUFFERS) {
+            buffer.clear();
+            bufferPool.push(buffer);
+        }
+    }
+
+    /**
+     * Encodes the task lines in one range of the task array.
+     */
+    private static class ChunkEncoder extends RecursiveTask<ByteBuffer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Task[] tasks;
+        private final int start;
+        private final int end;
+        private final CharsetEncoder encoder;
+        // The buffer grows while encoding, so the pool is given back whichever buffer the chunk ended with
+        private ByteBuffer buffer;
+
+        ChunkEncoder(Task[] tasks, int start, int end, CharsetEncoder encoder, ByteBuffer buffer) {
+            this.tasks = tasks;
+            this.start = start;
+            this.end = end;
+            this.encoder = encoder.onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.buffer = buffer;
+        }
+
+        @Override
+        protected ByteBuffer compute() {
+            StringBuilder line = new StringBuilder();
+            for (int i = start; i < end; i++) {
+                line.setLength(0);
+                line.append(tasks[i].toFileFormat()).append('\n');
+                encode(CharBuffer.wrap(line), false);
+            }
+            encode(CharBuffer.allocate(0), true);
+            while (encoder.flush(buffer).isOverflow()) {
+                grow();
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        // Malformed and unmappable input is replaced, so encoding only stops early when the buffer is full
+        private void encode(CharBuffer in, boolean isEndOfInput) {
+            while (encoder.encode(in, buffer, isEndOfInput).isOverflow()) {
+                grow();
+            }
+        }
+
+        private void grow() {
+            ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+}
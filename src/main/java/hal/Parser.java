@@ -1,12 +1,24 @@
 package hal;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
 /**
  * Handles parsing and processing of user commands.
  */
 public class Parser {
+    /** The number of tasks on a page when a paged command does not give a page size. */
+    static final int DEFAULT_PAGE_SIZE = 50;
+
+    private static final int LIST_COMMAND_LENGTH = 4;
     private static final int MARK_COMMAND_LENGTH = 4;
     private static final int UNMARK_COMMAND_LENGTH = 6;
     private static final int DELETE_COMMAND_LENGTH = 6;
@@ -14,6 +26,14 @@ public class Parser {
     private static final int DEADLINE_COMMAND_LENGTH = 8;
     private static final int EVENT_COMMAND_LENGTH = 5;
     private static final int FIND_COMMAND_LENGTH = 4;
+    private static final int DUE_COMMAND_LENGTH = 3;
+    private static final int BETWEEN_COMMAND_LENGTH = 7;
+    private static final String TASK_ID_PREFIX = "#";
+    private static final String PAGE_OPTION = "--page";
+    private static final int MAX_PAGE_ARGUMENTS = 2;
+    private static final String TODAY = "today";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59);
     private static final String DEADLINE_SEPARATOR = " /by";
     private static final String EVENT_FROM_SEPARATOR = " /from";
     private static final String EVENT_TO_SEPARATOR = " /to";
@@ -22,6 +42,8 @@ public class Parser {
     private static final int EVENT_TO_SEPARATOR_LENGTH = 4;
     
     private Scanner scanner;
+    // Null unless input is read through a buffered reader instead of the scanner
+    private BufferedReader reader;
 
     /**
      * Constructs a Parser with a scanner for reading input.
@@ -30,13 +52,52 @@ public class Parser {
         this.scanner = new Scanner(System.in);
     }
 
+    /**
+     * Constructs a Parser that reads input through the given reader, which can tell when no input is waiting.
+     *
+     * @param reader The reader to read commands from.
+     */
+    public Parser(BufferedReader reader) {
+        assert reader != null : "Reader should not be null";
+        this.reader = reader;
+    }
+
     /**
      * Reads a command from the user.
      *
      * @return The user input string.
+     * @throws NoSuchElementException If there is no more input.
      */
     public String readCommand() {
-        return scanner.nextLine();
+        if (reader == null) {
+            return scanner.nextLine();
+        }
+        try {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new NoSuchElementException("No line found");
+            }
+            return line;
+        } catch (IOException e) {
+            throw new HalException("Error: Could not read input!");
+        }
+    }
+
+    /**
+     * Returns whether more input can be read without waiting for the user.
+     * Input read through the scanner is never reported as waiting.
+     *
+     * @return True if input is waiting, false otherwise.
+     */
+    public boolean hasPendingInput() {
+        if (reader == null) {
+            return false;
+        }
+        try {
+            return reader.ready();
+        } catch (IOException e) {
+            return false;
+        }
     }
 
     /**
@@ -52,7 +113,7 @@ public class Parser {
     private Command parseCommand(String input) {
         String lowerInput = input.toLowerCase().trim();
         
-        if (lowerInput.equals("list")) {
+        if (isCommandWithOptionalSpace(lowerInput, "list", LIST_COMMAND_LENGTH)) {
             return Command.LIST;
         } else if (isCommandWithOptionalSpace(lowerInput, "mark", MARK_COMMAND_LENGTH)) {
             return Command.MARK;
@@ -68,6 +129,14 @@ public class Parser {
             return Command.EVENT;
         } else if (isCommandWithOptionalSpace(lowerInput, "find", FIND_COMMAND_LENGTH)) {
             return Command.FIND;
+        } else if (isCommandWithOptionalSpace(lowerInput, "due", DUE_COMMAND_LENGTH)) {
+            return Command.DUE;
+        } else if (isCommandWithOptionalSpace(lowerInput, "between", BETWEEN_COMMAND_LENGTH)) {
+            return Command.BETWEEN;
+        } else if (lowerInput.equals("conflicts")) {
+            return Command.CONFLICTS;
+        } else if (lowerInput.equals("export")) {
+            return Command.EXPORT;
         } else if (lowerInput.equals("bye")) {
             return Command.BYE;
         } else {
@@ -93,7 +162,7 @@ public class Parser {
         
         switch (command) {
         case LIST:
-            ui.showList(tasks);
+            handleListCommand(input, tasks, ui);
             break;
         case MARK:
             handleMarkCommand(input, tasks, ui, storage);
@@ -116,6 +185,19 @@ public class Parser {
         case FIND:
             handleFindCommand(input, tasks, ui);
             break;
+        case DUE:
+            handleDueCommand(input, tasks, ui);
+            break;
+        case BETWEEN:
+            handleBetweenCommand(input, tasks, ui);
+            break;
+        case CONFLICTS:
+            ui.showConflicts(tasks.findConflicts());
+            break;
+        case EXPORT:
+            storage.exportText(tasks.getAllTasks());
+            ui.showExported(tasks.getTaskCount(), storage.getFilePath());
+            break;
         default:
             throw new HalException("Error: Please use a valid command!");
         }
@@ -126,7 +208,7 @@ public class Parser {
         int taskIndex = parseAndValidateTaskIndex(indexStr, tasks);
         tasks.markTask(taskIndex);
         ui.showTaskMarked(tasks.getTask(taskIndex));
-        storage.save(tasks.getAllTasks());
+        storage.saveChange(tasks, TaskChange.UPDATED, tasks.getTask(taskIndex));
     }
 
     private void handleUnmarkCommand(String input, TaskList tasks, Ui ui, Storage storage) {
@@ -134,7 +216,7 @@ public class Parser {
         int taskIndex = parseAndValidateTaskIndex(indexStr, tasks);
         tasks.unmarkTask(taskIndex);
         ui.showTaskUnmarked(tasks.getTask(taskIndex));
-        storage.save(tasks.getAllTasks());
+        storage.saveChange(tasks, TaskChange.UPDATED, tasks.getTask(taskIndex));
     }
 
     private void handleDeleteCommand(String input, TaskList tasks, Ui ui, Storage storage) {
@@ -142,7 +224,7 @@ public class Parser {
         int taskIndex = parseAndValidateTaskIndex(indexStr, tasks);
         Task deletedTask = tasks.deleteTask(taskIndex);
         ui.showTaskDeleted(deletedTask, tasks.getTaskCount());
-        storage.save(tasks.getAllTasks());
+        storage.saveChange(tasks, TaskChange.DELETED, deletedTask);
     }
 
     private void handleTodoCommand(String input, TaskList tasks, Ui ui, Storage storage) {
@@ -156,7 +238,7 @@ public class Parser {
             return;
         }
         ui.showTaskAdded(task, tasks.getTaskCount());
-        storage.save(tasks.getAllTasks());
+        storage.saveChange(tasks, TaskChange.ADDED, task);
     }
 
     private void handleDeadlineCommand(String input, TaskList tasks, Ui ui, Storage storage) {
@@ -176,18 +258,18 @@ public class Parser {
         if (by.isEmpty()) {
             throw new HalException("Error: Deadline time cannot be empty!");
         }
-        try {
-            Task task = new Deadline(description, by);
-            if (!tasks.addTask(task)) {
-                ui.showDuplicateWarning(task);
-                return;
-            }
-            ui.showTaskAdded(task, tasks.getTaskCount());
-            storage.save(tasks.getAllTasks());
-        } catch (Exception e) {
+        long byMinute = DateTimeCodec.parseInputMinute(by);
+        if (byMinute == DateTimeCodec.INVALID) {
             throw new HalException("Error: Invalid date format! "
                     + "Please use dd/MM/yyyy HHmm format (e.g. 15/10/2019 1800).");
         }
+        Task task = new Deadline(description, byMinute);
+        if (!tasks.addTask(task)) {
+            ui.showDuplicateWarning(task);
+            return;
+        }
+        ui.showTaskAdded(task, tasks.getTaskCount());
+        storage.saveChange(tasks, TaskChange.ADDED, task);
     }
 
     private void handleEventCommand(String input, TaskList tasks, Ui ui, Storage storage) {
@@ -209,40 +291,190 @@ public class Parser {
         if (from.isEmpty() || to.isEmpty()) {
             throw new HalException("Error: Event time cannot be empty!");
         }
-        try {
-            Task task = new Event(description, from, to);
-            if (!tasks.addTask(task)) {
-                ui.showDuplicateWarning(task);
-                return;
-            }
-            ui.showTaskAdded(task, tasks.getTaskCount());
-            storage.save(tasks.getAllTasks());
-        } catch (Exception e) {
+        long fromMinute = DateTimeCodec.parseInputMinute(from);
+        long toMinute = DateTimeCodec.parseInputMinute(to);
+        if (fromMinute == DateTimeCodec.INVALID || toMinute == DateTimeCodec.INVALID) {
             throw new HalException("Error: Invalid date/time format! "
                     + "Please use dd/MM/yyyy HHmm format (e.g. 15/10/2019 1800).");
         }
+        Event task = new Event(description, fromMinute, toMinute);
+        if (!tasks.addTask(task)) {
+            ui.showDuplicateWarning(task);
+            return;
+        }
+        ui.showTaskAdded(task, tasks.getTaskCount());
+        ArrayList<Task> overlappingEvents = tasks.findOverlappingEvents(task);
+        if (!overlappingEvents.isEmpty()) {
+            ui.showOverlapWarning(overlappingEvents);
+        }
+        storage.saveChange(tasks, TaskChange.ADDED, task);
+    }
+
+    private void handleListCommand(String input, TaskList tasks, Ui ui) {
+        String arguments = input.trim().substring(LIST_COMMAND_LENGTH).trim();
+        if (arguments.isEmpty()) {
+            ui.showList(tasks);
+            return;
+        }
+        int[] page = parsePage(arguments, tasks.getTaskCount());
+        ui.showListPage(tasks, page[0], page[1]);
     }
 
     private void handleFindCommand(String input, TaskList tasks, Ui ui) {
-        String keyword = input.trim().substring(FIND_COMMAND_LENGTH).trim();
+        String[] queryAndPage = splitPageOption(input.trim().substring(FIND_COMMAND_LENGTH).trim());
+        String keyword = queryAndPage[0];
         if (keyword.isEmpty()) {
             throw new HalException("Error: Please provide a keyword to search for!");
         }
-        ArrayList<Task> foundTasks = tasks.findTasks(keyword);
-        ui.showFoundTasks(foundTasks);
+        ArrayList<Task> foundTasks = tasks.searchTasks(keyword);
+        if (queryAndPage[1] == null) {
+            ui.showFoundTasks(foundTasks);
+            return;
+        }
+        int[] page = parsePage(queryAndPage[1], foundTasks.size());
+        ui.showFoundTasks(foundTasks, page[0], page[1]);
+    }
+
+    /**
+     * Parses the arguments of a paged command into a page number and a page size, and checks that the page exists.
+     *
+     * @param arguments A page number, optionally followed by a page size.
+     * @param itemCount The number of items being paged through.
+     * @return The page number, starting from 1, followed by the page size.
+     * @throws HalException If the arguments are not positive whole numbers or the page does not exist.
+     */
+    static int[] parsePage(String arguments, int itemCount) throws HalException {
+        String[] parts = arguments.trim().split("\\s+");
+        if (arguments.trim().isEmpty() || parts.length > MAX_PAGE_ARGUMENTS) {
+            throw new HalException("Error: Please provide a page number and an optional page size, e.g. list 2 50.");
+        }
+        int page = parsePositiveNumber(parts[0]);
+        int pageSize = parts.length > 1 ? parsePositiveNumber(parts[1]) : DEFAULT_PAGE_SIZE;
+        int pageCount = Ui.countPages(itemCount, pageSize);
+        if (page > pageCount) {
+            throw new HalException("Error: Page " + page + " does not exist! The last page is " + pageCount + ".");
+        }
+        return new int[] {page, pageSize};
+    }
+
+    private static int parsePositiveNumber(String text) throws HalException {
+        try {
+            int number = Integer.parseInt(text);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below along with numbers that are not positive
+        }
+        throw new HalException("Error: Page numbers and sizes must be positive whole numbers!");
+    }
+
+    /**
+     * Splits a find query from the page option that may end it, as in "book --page 2".
+     *
+     * @param arguments The arguments of the find command.
+     * @return The query, followed by the arguments of the page option, or null if there is no page option.
+     */
+    static String[] splitPageOption(String arguments) {
+        int optionIndex = arguments.lastIndexOf(PAGE_OPTION);
+        int optionEnd = optionIndex + PAGE_OPTION.length();
+        boolean isOption = optionIndex >= 0
+                && (optionIndex == 0 || arguments.charAt(optionIndex - 1) == ' ')
+                && (optionEnd == arguments.length() || arguments.charAt(optionEnd) == ' ');
+        if (!isOption) {
+            return new String[] {arguments, null};
+        }
+        return new String[] {arguments.substring(0, optionIndex).trim(), arguments.substring(optionEnd).trim()};
+    }
+
+    private void handleDueCommand(String input, TaskList tasks, Ui ui) {
+        long[] period = parseDuePeriod(input.trim().substring(DUE_COMMAND_LENGTH).trim());
+        ui.showScheduledTasks(tasks.findTasksDue(period[0], period[1]));
+    }
+
+    private void handleBetweenCommand(String input, TaskList tasks, Ui ui) {
+        long[] period = parseBetweenPeriod(input.trim().substring(BETWEEN_COMMAND_LENGTH).trim());
+        ui.showScheduledTasks(tasks.findTasksDue(period[0], period[1]));
+    }
+
+    /**
+     * Parses the argument of a due command into a period that ends at the end of the given date or time.
+     * The period has no start, so tasks that are already overdue are included.
+     *
+     * @param argument A date, a date and time, or "today".
+     * @return The start and end of the period as epoch minutes.
+     * @throws HalException If the argument is not a valid date.
+     */
+    static long[] parseDuePeriod(String argument) throws HalException {
+        if (argument.isEmpty()) {
+            throw new HalException("Error: Please provide a date, e.g. due 15/10/2019 or due today.");
+        }
+        return new long[] {Long.MIN_VALUE, parseTimeBound(argument, true)};
+    }
+
+    /**
+     * Parses the arguments of a between command into a period from the start of the first date or time
+     * to the end of the second.
+     *
+     * @param arguments Two dates, dates and times, or "today", separated by a space.
+     * @return The start and end of the period as epoch minutes.
+     * @throws HalException If the arguments are not two valid dates.
+     */
+    static long[] parseBetweenPeriod(String arguments) throws HalException {
+        String[] parts = arguments.split("\\s+");
+        // The first bound takes the next part as well when that part is a time
+        int firstLength = parts.length > 2 && parts[1].matches("\\d{4}") ? 2 : 1;
+        if (arguments.isEmpty() || parts.length <= firstLength || parts.length > firstLength + 2) {
+            throw new HalException("Error: Please provide a start and an end date, "
+                    + "e.g. between 15/10/2019 20/10/2019.");
+        }
+        String first = String.join(" ", Arrays.copyOfRange(parts, 0, firstLength));
+        String second = String.join(" ", Arrays.copyOfRange(parts, firstLength, parts.length));
+        return new long[] {parseTimeBound(first, false), parseTimeBound(second, true)};
+    }
+
+    private static long parseTimeBound(String text, boolean isEnd) throws HalException {
+        LocalDate date;
+        if (text.equalsIgnoreCase(TODAY)) {
+            date = LocalDate.now();
+        } else {
+            long epochMinute = DateTimeCodec.parseInputMinute(text);
+            if (epochMinute != DateTimeCodec.INVALID) {
+                return epochMinute;
+            }
+            // Not a date and time, so try a date on its own
+            try {
+                date = LocalDate.parse(text, DATE_FORMATTER);
+            } catch (DateTimeParseException e) {
+                throw new HalException("Error: Invalid date format! "
+                        + "Please use dd/MM/yyyy or dd/MM/yyyy HHmm format (e.g. 15/10/2019).");
+            }
+        }
+        return DateTimeCodec.toEpochMinute(isEnd ? date.atTime(END_OF_DAY) : date.atStartOfDay());
     }
 
     /**
      * Closes the scanner and releases resources.
      */
     public void close() {
-        scanner.close();
+        if (reader == null) {
+            scanner.close();
+            return;
+        }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            // Nothing more will be read, so a failure to close changes nothing
+        }
     }
 
     private int parseAndValidateTaskIndex(String indexStr, TaskList tasks) throws HalException {
         if (indexStr.isEmpty()) {
             throw new HalException("Error: Task number is required!");
         }
+        if (indexStr.startsWith(TASK_ID_PREFIX)) {
+            return parseTaskId(indexStr, tasks);
+        }
         try {
             int taskIndex = Integer.parseInt(indexStr) - 1;
             if (taskIndex < 0 || taskIndex >= tasks.getTaskCount()) {
@@ -253,4 +485,26 @@ public class Parser {
             throw new HalException("Error: Invalid task number!");
         }
     }
+
+    /**
+     * Parses a task ID written as "#ID" and returns the current position of that task.
+     *
+     * @param idStr The ID with its "#" prefix.
+     * @param tasks The task list holding the task.
+     * @return The 0-based index of the task.
+     * @throws HalException If the ID is not a number or no task has it.
+     */
+    static int parseTaskId(String idStr, TaskList tasks) throws HalException {
+        assert idStr.startsWith(TASK_ID_PREFIX) : "Task ID should start with #";
+        try {
+            long id = Long.parseLong(idStr.substring(TASK_ID_PREFIX.length()));
+            int taskIndex = tasks.getIndexById(id);
+            if (taskIndex < 0) {
+                throw new HalException("Error: No task has the ID #" + id + "!");
+            }
+            return taskIndex;
+        } catch (NumberFormatException e) {
+            throw new HalException("Error: Invalid task ID!");
+        }
+    }
 }
@@ -0,0 +1,82 @@
+package hal;
+
+/**
+ * Bounds how many tasks keep the line they were last shown as, so listing the same tasks again does not
+ * format their dates and build their lines again. A line only changes when its task is marked or unmarked,
+ * which drops it. Each task holds its own line, so a hit costs no lookup, and a ring of the tasks that
+ * were given lines drops the oldest line once the ring is full, so at most its capacity of tasks keep one.
+ * Tasks that are only shown once, such as deleted tasks and the views of a columnar list, are rendered
+ * without keeping a line, so the ring never keeps them reachable.
+ */
+public class RenderCache {
+    /** The ring slot of a task that has none. */
+    static final int NO_SLOT = -1;
+    /** The ring slot of a task whose line is never kept. */
+    static final int NOT_CACHED = -2;
+
+    private final Task[] ring;
+    private int next;
+
+    /**
+     * Constructs an empty RenderCache.
+     *
+     * @param capacity The largest number of lines to keep.
+     */
+    public RenderCache(int capacity) {
+        assert capacity > 0 : "Render cache capacity should be positive";
+        this.ring = new Task[capacity];
+    }
+
+    /**
+     * Returns the line shown for a task, rendering and keeping it if the task has none.
+     *
+     * @param task The task to show.
+     * @return The rendered line.
+     */
+    public String get(Task task) {
+        String line = task.getRenderedLine();
+        if (line != null) {
+            return line;
+        }
+        line = task.render();
+        if (task.getRenderSlot() != NOT_CACHED) {
+            keep(task, line);
+        }
+        return line;
+    }
+
+    /**
+     * Drops the line kept for a task and stops keeping one, so that the ring no longer holds the task.
+     *
+     * @param task The task that will not be shown again, such as one deleted from its list.
+     */
+    public synchronized void release(Task task) {
+        int slot = task.getRenderSlot();
+        if (slot >= 0 && ring[slot] == task) {
+            ring[slot] = null;
+        }
+        task.setRenderSlot(NOT_CACHED);
+        task.setRenderedLine(null);
+    }
+
+    private synchronized void keep(Task task, String line) {
+        int slot = task.getRenderSlot();
+        if (slot == NOT_CACHED || task.getRenderedLine() != null) {
+            return;
+        }
+        if (slot >= 0 && ring[slot] == task) {
+            // The task lost its line by being marked or unmarked, but still holds its slot
+            task.setRenderedLine(line);
+            return;
+        }
+        Task evicted = ring[next];
+        if (evicted != null) {
+            evicted.setRenderedLine(null);
+            evicted.setRenderSlot(NO_SLOT);
+        }
+        ring[next] = task;
+        task.setRenderSlot(next);
+        next = (next + 1) % ring.length;
+        task.setRenderedLine(line);
+    }
+}
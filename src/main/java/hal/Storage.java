@@ -1,39 +1,56 @@
 package hal;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Scanner;
 
 /**
  * Handles loading and saving of tasks to a file.
  */
 public class Storage {
-    private static final String TASK_SEPARATOR = " \\| ";
-    private static final String DONE_MARKER = "1";
-    private static final String TODO_TYPE = "T";
-    private static final String DEADLINE_TYPE = "D";
-    private static final String EVENT_TYPE = "E";
-    private static final int MIN_TASK_PARTS = 3;
-    private static final int DEADLINE_PARTS = 4;
-    private static final int EVENT_PARTS = 5;
-    private static final int TYPE_INDEX = 0;
-    private static final int STATUS_INDEX = 1;
-    private static final int DESCRIPTION_INDEX = 2;
-    private static final int DEADLINE_TIME_INDEX = 3;
-    private static final int EVENT_FROM_INDEX = 3;
-    private static final int EVENT_TO_INDEX = 4;
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String DELTA_SUFFIX = ".delta";
+    private static final String SEALED_DELTA_SUFFIX = ".delta.sealed";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String TEXT_EXTENSION = ".txt";
+    private static final String BINARY_EXTENSION = ".bin";
+    private static final String RECORD_EXTENSION = ".dat";
     
     private String filePath;
+    private StorageMode mode;
+    private TaskJournal journal;
+    private int journalCheckpoint;
+    private TaskJournal sealedJournal;
+    private DeltaCompactor compactor;
+    private int compactRecords;
+    private long compactBytes;
+    private int maxReplay;
+    private int sealedRecordCount;
+    private BinarySnapshot binarySnapshot;
+    private TaskRecordFile recordFile;
+    private long parallelLoadBytes;
+    private int parallelSaveTasks;
+    private ParallelTaskWriter parallelWriter;
+    private int unfoldedRecordCount;
+    private WriteBehindFlusher flusher;
+    private GroupCommitter committer;
 
     /**
      * Constructs a Storage with the default file path.
      */
     public Storage() {
-        this.filePath = "./data/hal.txt";
+        this("./data/hal.txt");
     }
 
     /**
@@ -45,6 +62,143 @@ public class Storage {
         assert filePath != null : "File path should not be null";
         assert !filePath.trim().isEmpty() : "File path should not be empty";
         this.filePath = filePath;
+        this.mode = StorageMode.TEXT;
+        this.parallelLoadBytes = HalConfig.getParallelLoadBytes();
+        this.parallelSaveTasks = HalConfig.getParallelSaveTasks();
+    }
+
+    /**
+     * Sets the data file size from which the file is split into chunks and loaded on all cores.
+     *
+     * @param parallelLoadBytes The size in bytes from which loading is parallel.
+     */
+    public void setParallelLoadThreshold(long parallelLoadBytes) {
+        assert parallelLoadBytes > 0 : "Parallel load threshold should be positive";
+        this.parallelLoadBytes = parallelLoadBytes;
+    }
+
+    /**
+     * Sets the number of tasks from which a full save is encoded on all cores and written in one gathering write.
+     *
+     * @param parallelSaveTasks The number of tasks from which saving is parallel.
+     */
+    public void setParallelSaveThreshold(int parallelSaveTasks) {
+        assert parallelSaveTasks > 0 : "Parallel save threshold should be positive";
+        this.parallelSaveTasks = parallelSaveTasks;
+    }
+
+    /**
+     * Constructs a Storage with the specified file path and storage mode.
+     * In JOURNAL mode, changes are appended to a journal next to the data file,
+     * which is folded back into the data file every {@link HalConfig#getJournalCheckpoint()} records.
+     * In DELTA mode, changes are appended to a delta file that is folded into the data file in the background.
+     * In BINARY mode, tasks are saved to a binary snapshot next to the data file, and the text data file
+     * is only read if no snapshot exists yet.
+     * In RECORD mode, tasks are kept in a fixed-layout record file next to the data file, so marking and deleting
+     * a task only overwrites a single byte of its record.
+     *
+     * @param filePath The path to the storage file.
+     * @param mode The way tasks are persisted.
+     */
+    public Storage(String filePath, StorageMode mode) {
+        this(filePath);
+        assert mode != null : "Storage mode should not be null";
+        this.mode = mode;
+        if (mode == StorageMode.JOURNAL) {
+            this.journal = new TaskJournal(filePath + JOURNAL_SUFFIX);
+            this.journalCheckpoint = HalConfig.getJournalCheckpoint();
+        } else if (mode == StorageMode.DELTA) {
+            this.journal = new TaskJournal(filePath + DELTA_SUFFIX);
+            this.sealedJournal = new TaskJournal(filePath + SEALED_DELTA_SUFFIX);
+            this.compactor = new DeltaCompactor();
+            setCompactionLimits(HalConfig.getDeltaCompactRecords(), HalConfig.getDeltaCompactBytes(),
+                    HalConfig.getDeltaMaxReplay());
+        } else if (mode == StorageMode.BINARY) {
+            this.binarySnapshot = new BinarySnapshot(toSiblingPath(filePath, BINARY_EXTENSION));
+        } else if (mode == StorageMode.RECORD) {
+            this.recordFile = new TaskRecordFile(toSiblingPath(filePath, RECORD_EXTENSION));
+        }
+    }
+
+    private static String toSiblingPath(String textPath, String extension) {
+        String basePath = textPath.endsWith(TEXT_EXTENSION)
+                ? textPath.substring(0, textPath.length() - TEXT_EXTENSION.length())
+                : textPath;
+        return basePath + extension;
+    }
+
+    /**
+     * Sets when deltas are compacted in DELTA mode.
+     * A background compaction starts once the delta file reaches either trigger,
+     * and commands wait for compaction rather than let more than maxReplay deltas build up.
+     *
+     * @param compactRecords The number of delta records that starts a compaction.
+     * @param compactBytes The delta file size in bytes that starts a compaction.
+     * @param maxReplay The largest number of deltas that loading may have to replay.
+     */
+    public void setCompactionLimits(int compactRecords, long compactBytes, int maxReplay) {
+        assert mode == StorageMode.DELTA : "Compaction limits only apply in DELTA mode";
+        assert compactRecords > 0 && compactBytes > 0 && maxReplay > 0 : "Compaction limits should be positive";
+        this.compactRecords = Math.min(compactRecords, maxReplay);
+        this.compactBytes = compactBytes;
+        this.maxReplay = maxReplay;
+    }
+
+    /**
+     * Moves writes off the calling thread onto a background flusher.
+     * Changes made in quick succession are coalesced and written in batches, so a burst of commands
+     * costs one write instead of one per command. Pending changes are written by {@link #flush()}
+     * and when the JVM shuts down.
+     *
+     * @param maxDelayMillis The longest time in milliseconds a change may wait before it is written.
+     * @param maxBatchSize The largest number of changes written in one batch.
+     */
+    public void enableWriteBehind(long maxDelayMillis, int maxBatchSize) {
+        assert flusher == null : "Write-behind should only be enabled once";
+        // A batch of deltas is appended in one go, so it must fit within the replay bound
+        int batchSize = mode == StorageMode.DELTA ? Math.min(maxBatchSize, maxReplay) : maxBatchSize;
+        flusher = new WriteBehindFlusher(this, maxDelayMillis, batchSize);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeQuietly, "hal-storage-shutdown"));
+    }
+
+    /**
+     * Makes every full save crash-safe.
+     * Saves are written to a temporary file that is forced to disk and then atomically renamed over
+     * the data file, and saves that overlap share a single fsync. Journal and delta appends are forced too.
+     */
+    public void enableDurableSaves() {
+        if (journal != null) {
+            journal.setDurable(true);
+        }
+        if (sealedJournal != null) {
+            sealedJournal.setDurable(true);
+        }
+        if (recordFile != null) {
+            recordFile.setDurable(true);
+        }
+        committer = binarySnapshot != null
+                ? new GroupCommitter(binarySnapshot.getPath(), binarySnapshot::write)
+                : new GroupCommitter(Paths.get(filePath), Storage::writeTaskLines);
+    }
+
+    private void closeQuietly() {
+        try {
+            flusher.close();
+            if (compactor != null) {
+                compactor.await();
+            }
+        } catch (HalException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the storage mode in use.
+     *
+     * @return The storage mode.
+     */
+    public StorageMode getMode() {
+        return mode;
     }
 
     /**
@@ -54,64 +208,119 @@ public class Storage {
      * @throws HalException If the file cannot be loaded.
      */
     public ArrayList<Task> load() throws HalException {
+        if (binarySnapshot != null && binarySnapshot.exists()) {
+            return binarySnapshot.load();
+        }
+        if (recordFile != null) {
+            return loadRecords();
+        }
+        ArrayList<Task> tasks = loadSnapshot();
+        if (mode == StorageMode.DELTA) {
+            return loadWithDeltas(tasks);
+        }
+        if (journal != null) {
+            ArrayList<String> records = journal.readRecords();
+            unfoldedRecordCount = records.size();
+            return replayJournal(tasks, records);
+        }
+        return tasks;
+    }
+
+    private ArrayList<Task> loadRecords() throws HalException {
+        if (!recordFile.exists()) {
+            // Import the text data file so that every task has a record to update in place
+            ArrayList<Task> tasks = loadSnapshot();
+            recordFile.rewrite(tasks.toArray(new Task[0]));
+            return tasks;
+        }
+        ArrayList<Task> tasks = recordFile.load();
+        if (recordFile.shouldReclaim()) {
+            recordFile.rewrite(tasks.toArray(new Task[0]));
+        }
+        return tasks;
+    }
+
+    private ArrayList<Task> loadWithDeltas(ArrayList<Task> snapshot) throws HalException {
+        compactor.await();
+        ArrayList<String> records = sealedJournal.readRecords();
+        records.addAll(journal.readRecords());
+        ArrayList<Task> tasks = replayJournal(snapshot, records);
+        if (records.size() > maxReplay) {
+            // Left behind by a crash or a lower limit, so fold it now to keep the next load bounded
+            save(tasks);
+        }
+        return tasks;
+    }
+
+    private ArrayList<Task> loadSnapshot() throws HalException {
         ArrayList<Task> tasks = new ArrayList<>();
         File file = new File(filePath);
 
         if (!file.exists()) {
             return tasks;
         }
+        if (file.length() >= parallelLoadBytes) {
+            return new ParallelTaskLoader().load(file.toPath());
+        }
 
+        TaskLineCodec codec = new TaskLineCodec();
         try {
-            Scanner scanner = new Scanner(file);
+            Scanner scanner = new Scanner(file, StandardCharsets.UTF_8);
             while (scanner.hasNextLine()) {
                 String line = scanner.nextLine();
-                Task task = parseTask(line);
+                Task task = codec.decode(line);
                 if (task != null) {
                     tasks.add(task);
                 }
             }
             scanner.close();
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             throw new HalException("Error: Could not load data file!");
         }
 
         return tasks;
     }
 
-    private Task parseTask(String line) {
-        String[] parts = line.split(TASK_SEPARATOR);
-        if (parts.length < MIN_TASK_PARTS) {
-            return null;
+    private ArrayList<Task> replayJournal(ArrayList<Task> snapshot, ArrayList<String> records) {
+        if (records.isEmpty()) {
+            return snapshot;
         }
-
-        String type = parts[TYPE_INDEX];
-        boolean isDone = parts[STATUS_INDEX].equals(DONE_MARKER);
-        String description = parts[DESCRIPTION_INDEX];
-
-        Task task = createTaskByType(type, parts, description);
-
-        if (task != null && isDone) {
-            task.markAsDone();
+        // Tasks never hold duplicates, so a task's own equality is a stable key for it
+        LinkedHashMap<Task, Task> liveTasks = new LinkedHashMap<>();
+        for (Task task : snapshot) {
+            liveTasks.putIfAbsent(task, task);
         }
-
-        return task;
+        TaskLineCodec codec = new TaskLineCodec();
+        for (String record : records) {
+            applyRecord(liveTasks, record, codec);
+        }
+        return new ArrayList<>(liveTasks.values());
     }
 
-    private Task createTaskByType(String type, String[] parts, String description) {
-        try {
-            if (type.equals(TODO_TYPE)) {
-                return new Todo(description);
-            } else if (type.equals(DEADLINE_TYPE) && parts.length >= DEADLINE_PARTS) {
-                return new Deadline(description, LocalDateTime.parse(parts[DEADLINE_TIME_INDEX]));
-            } else if (type.equals(EVENT_TYPE) && parts.length >= EVENT_PARTS) {
-                return new Event(description, 
-                        LocalDateTime.parse(parts[EVENT_FROM_INDEX]), 
-                        LocalDateTime.parse(parts[EVENT_TO_INDEX]));
+    private void applyRecord(LinkedHashMap<Task, Task> liveTasks, String record, TaskLineCodec codec) {
+        TaskChange change = TaskJournal.getChange(record);
+        Task task = change == null ? null : codec.decode(record, TaskJournal.TASK_LINE_START, record.length());
+        if (task == null) {
+            return;
+        }
+        switch (change) {
+        case ADDED:
+            liveTasks.putIfAbsent(task, task);
+            break;
+        case UPDATED:
+            Task existingTask = liveTasks.get(task);
+            if (existingTask != null && task.isDone()) {
+                existingTask.markAsDone();
+            } else if (existingTask != null) {
+                existingTask.markAsNotDone();
             }
-        } catch (Exception e) {
-            return null;
+            break;
+        case DELETED:
+            liveTasks.remove(task);
+            break;
+        default:
+            break;
         }
-        return null;
     }
 
     /**
@@ -121,31 +330,289 @@ public class Storage {
      * @throws HalException If the file cannot be saved.
      */
     public void save(Task... tasks) throws HalException {
-        try {
-            File file = new File(filePath);
-            File directory = file.getParentFile();
-            
-            if (directory != null && !directory.exists()) {
-                directory.mkdirs();
-            }
+        unfoldedRecordCount = 0;
+        if (flusher != null) {
+            flusher.submitSnapshot(tasks);
+            flusher.flush();
+            return;
+        }
+        writeSnapshot(tasks);
+    }
 
-            FileWriter writer = new FileWriter(file);
-            for (Task task : tasks) {
-                writer.write(task.toFileFormat() + "\n");
+    private void writeSnapshot(Task... tasks) throws HalException {
+        if (recordFile != null) {
+            recordFile.rewrite(tasks);
+            return;
+        }
+        if (binarySnapshot != null) {
+            if (committer != null) {
+                committer.commit(tasks);
+            } else {
+                binarySnapshot.save(tasks);
             }
-            writer.close();
+            return;
+        }
+        if (compactor != null) {
+            compactor.await();
+        }
+        if (committer != null) {
+            committer.commit(tasks);
+        } else {
+            try {
+                writeTasks(new File(filePath), tasks);
+            } catch (IOException e) {
+                throw new HalException("Error: Could not save data to file!");
+            }
+        }
+        if (journal != null) {
+            journal.clear();
+        }
+        if (sealedJournal != null) {
+            sealedJournal.clear();
+            sealedRecordCount = 0;
+        }
+    }
+
+    /**
+     * Saves tasks to the text data file, whatever the storage mode.
+     * This lets tasks kept in a binary snapshot or record file be exported in the readable text format.
+     *
+     * @param taskList The list of tasks to export.
+     * @throws HalException If the file cannot be saved.
+     */
+    public void exportText(List<Task> taskList) throws HalException {
+        if (binarySnapshot == null && recordFile == null) {
+            // The text file is the data file itself and may have a journal on top, so it is saved as usual
+            save(taskList);
+            return;
+        }
+        if (flusher != null) {
+            flusher.flush();
+        }
+        try {
+            writeTasks(new File(filePath), taskList.toArray(new Task[0]));
         } catch (IOException e) {
             throw new HalException("Error: Could not save data to file!");
         }
     }
 
     /**
-     * Saves tasks from an ArrayList to the storage file.
+     * Returns the path of the text data file, which tasks are exported to.
+     *
+     * @return The text data file path.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    private static void writeTaskLines(OutputStream out, Task... tasks) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        for (Task task : tasks) {
+            writer.write(task.toFileFormat() + "\n");
+        }
+        writer.flush();
+    }
+
+    private void writeTasks(File file, Task... tasks) throws IOException {
+        File directory = file.getParentFile();
+
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+        if (tasks.length >= parallelSaveTasks) {
+            if (parallelWriter == null) {
+                parallelWriter = new ParallelTaskWriter();
+            }
+            parallelWriter.write(file.toPath(), tasks);
+            return;
+        }
+
+        FileWriter writer = new FileWriter(file, StandardCharsets.UTF_8);
+        for (Task task : tasks) {
+            writer.write(task.toFileFormat() + "\n");
+        }
+        writer.close();
+    }
+
+    /**
+     * Saves tasks from a list to the storage file.
      *
      * @param taskList The list of tasks to save.
      * @throws HalException If the file cannot be saved.
      */
-    public void save(ArrayList<Task> taskList) throws HalException {
+    public void save(List<Task> taskList) throws HalException {
         save(taskList.toArray(new Task[0]));
     }
+
+    /**
+     * Persists a single change made to the task list.
+     * In TEXT mode the whole list is rewritten, in JOURNAL and DELTA modes only the change is appended,
+     * and in RECORD mode the task's record is updated in place.
+     * With write-behind enabled, the write is queued and this returns without waiting for it.
+     *
+     * @param tasks The task list after the change.
+     * @param change The kind of change made.
+     * @param task The task that was changed.
+     * @throws HalException If the change cannot be saved.
+     */
+    public void saveChange(TaskList tasks, TaskChange change, Task task) throws HalException {
+        assert tasks != null && change != null && task != null : "Change arguments should not be null";
+        if (recordFile != null) {
+            // In-place writes are a byte or a record long, so they gain nothing from being queued
+            saveRecordChange(tasks, change, task);
+            return;
+        }
+        boolean isCheckpointDue = mode == StorageMode.JOURNAL && unfoldedRecordCount >= journalCheckpoint;
+        if (journal == null || isCheckpointDue) {
+            Task[] snapshot = tasks.getAllTasks().toArray(new Task[0]);
+            unfoldedRecordCount = 0;
+            if (flusher != null) {
+                flusher.submitSnapshot(snapshot);
+            } else {
+                writeSnapshot(snapshot);
+            }
+            return;
+        }
+        String record = TaskJournal.toRecord(change, task) + "\n";
+        unfoldedRecordCount++;
+        if (flusher != null) {
+            flusher.submitRecords(record, 1);
+        } else {
+            appendRecords(record, 1);
+        }
+    }
+
+    private void saveRecordChange(TaskList tasks, TaskChange change, Task task) throws HalException {
+        boolean isWritten;
+        switch (change) {
+        case ADDED:
+            recordFile.append(task);
+            isWritten = true;
+            break;
+        case UPDATED:
+            isWritten = recordFile.updateDone(task);
+            break;
+        case DELETED:
+            isWritten = recordFile.delete(task) && !recordFile.shouldReclaim();
+            break;
+        default:
+            isWritten = false;
+            break;
+        }
+        if (!isWritten) {
+            save(tasks.getAllTasks());
+        }
+    }
+
+    /**
+     * Writes a batch of coalesced changes for the write-behind flusher.
+     * The snapshot, if any, is written first and the records are appended after it.
+     *
+     * @param snapshot The tasks to write in full, or null if only records are pending.
+     * @param records The newline-terminated records to append.
+     * @param recordCount The number of records.
+     * @throws HalException If the batch cannot be written.
+     */
+    void writeBatch(Task[] snapshot, String records, int recordCount) throws HalException {
+        if (snapshot != null) {
+            writeSnapshot(snapshot);
+        }
+        if (recordCount > 0) {
+            appendRecords(records, recordCount);
+        }
+    }
+
+    private void appendRecords(String records, int count) throws HalException {
+        if (mode == StorageMode.DELTA) {
+            appendDelta(records, count);
+        } else {
+            journal.append(records, count);
+        }
+    }
+
+    /**
+     * Waits until all pending changes and background work have been written to the data files.
+     *
+     * @throws HalException If a write or the background work failed.
+     */
+    public void flush() throws HalException {
+        if (flusher != null) {
+            flusher.flush();
+        }
+        if (compactor != null) {
+            compactor.await();
+        }
+    }
+
+    private void appendDelta(String records, int count) throws HalException {
+        HalException compactionFailure = null;
+        try {
+            if (!compactor.isRunning()) {
+                finishCompaction();
+            }
+            if (journal.getRecordCount() + sealedRecordCount + count > maxReplay) {
+                compactNow();
+            }
+        } catch (HalException e) {
+            // The change is still written, and the deltas of the failed compaction stay sealed for the next one
+            compactionFailure = e;
+        }
+        journal.append(records, count);
+        if (compactionFailure != null) {
+            throw compactionFailure;
+        }
+        boolean isTriggered = journal.getRecordCount() >= compactRecords || journal.getByteCount() >= compactBytes;
+        if (isTriggered && !compactor.isRunning()) {
+            startCompaction();
+        }
+    }
+
+    private void compactNow() throws HalException {
+        startCompaction();
+        compactor.await();
+        sealedRecordCount = sealedJournal.getRecordCount();
+    }
+
+    private void startCompaction() throws HalException {
+        finishCompaction();
+        journal.moveTo(sealedJournal);
+        sealedRecordCount = sealedJournal.getRecordCount();
+        compactor.start(this::foldSealedDeltas);
+    }
+
+    /**
+     * Waits for the running compaction, if any, and retries it here if it failed.
+     * A failed compaction leaves its deltas sealed, so folding them again loses nothing.
+     *
+     * @throws HalException If the retried compaction fails too.
+     */
+    private void finishCompaction() throws HalException {
+        try {
+            compactor.await();
+        } catch (HalException e) {
+            // Retried below, since its deltas are still sealed
+        }
+        if (!sealedJournal.isEmpty()) {
+            foldSealedDeltas();
+        }
+        sealedRecordCount = sealedJournal.getRecordCount();
+    }
+
+    private void foldSealedDeltas() throws HalException {
+        ArrayList<Task> tasks = replayJournal(loadSnapshot(), sealedJournal.readRecords());
+        if (committer != null) {
+            committer.commit(tasks.toArray(new Task[0]));
+            sealedJournal.clear();
+            return;
+        }
+        File tempFile = new File(filePath + TEMP_SUFFIX);
+        try {
+            writeTasks(tempFile, tasks.toArray(new Task[0]));
+            Files.move(tempFile.toPath(), Paths.get(filePath),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new HalException("Error: Could not compact data file!");
+        }
+        sealedJournal.clear();
+    }
 }
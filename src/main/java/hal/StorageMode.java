@@ -0,0 +1,12 @@
+package hal;
+
+/**
+ * Represents the different ways tasks can be persisted to disk.
+ */
+public enum StorageMode {
+    TEXT,
+    JOURNAL,
+    DELTA,
+    BINARY,
+    RECORD
+}
@@ -2,11 +2,28 @@ package hal;
 
 /**
  * Represents a task with a description and completion status.
+ * A task loaded from a data file may keep the raw line it came from and only cut its description out
+ * of that line the first time the description is needed. Until then it is hashed in place in the line.
+ * A task held in a {@link TaskList} shares its description and lowercase description with the other tasks
+ * in the list that have the same description.
+ * The line shown for a task only changes when it is marked or unmarked, so recently shown tasks keep
+ * their lines, up to the number allowed by a {@link RenderCache}.
  */
 public class Task {
+    private static final RenderCache RENDER_CACHE = new RenderCache(HalConfig.getRenderCacheLines());
+
     protected String description;
     protected boolean isDone;
     protected TaskType taskType;
+    private String lowerDescription;
+    private String renderedLine;
+    private int renderSlot = RenderCache.NO_SLOT;
+    private String rawText;
+    private int descriptionStart;
+    private int descriptionEnd;
+    private int hash;
+    private boolean isHashed;
+    private long id;
 
     /**
      * Constructs a Task with the given description.
@@ -36,6 +53,23 @@ public class Task {
         this.taskType = taskType;
     }
 
+    /**
+     * Constructs a Task whose description is decoded lazily from a range of raw text.
+     *
+     * @param taskType The type of the task.
+     * @param rawText The text holding the description.
+     * @param descriptionStart The index of the first character of the description.
+     * @param descriptionEnd The index after the last character of the description.
+     */
+    Task(TaskType taskType, String rawText, int descriptionStart, int descriptionEnd) {
+        assert rawText != null && descriptionStart < descriptionEnd : "Raw description should not be empty";
+        this.isDone = false;
+        this.taskType = taskType;
+        this.rawText = rawText;
+        this.descriptionStart = descriptionStart;
+        this.descriptionEnd = descriptionEnd;
+    }
+
     /**
      * Returns the type of this task.
      *
@@ -59,6 +93,7 @@ public class Task {
      */
     public void markAsDone() {
         this.isDone = true;
+        this.renderedLine = null;
     }
 
     /**
@@ -66,6 +101,7 @@ public class Task {
      */
     public void markAsNotDone() {
         this.isDone = false;
+        this.renderedLine = null;
     }
 
     /**
@@ -74,10 +110,67 @@ public class Task {
      * @return The task description.
      */
     public String getDescription() {
-        assert description != null : "Description should not be null";
+        String decodedDescription = description;
+        if (decodedDescription == null) {
+            decodedDescription = decodeDescription();
+        }
+        assert decodedDescription != null : "Description should not be null";
+        return decodedDescription;
+    }
+
+    // A background save may write a task out while it is being shown, so decoding holds the lock
+    private synchronized String decodeDescription() {
+        if (description == null) {
+            description = rawText.substring(descriptionStart, descriptionEnd);
+            rawText = null;
+        }
         return description;
     }
 
+    /**
+     * Returns whether the description has been cut out of the raw line, or was never in one.
+     *
+     * @return True if the description is held as its own string, false otherwise.
+     */
+    synchronized boolean isDescriptionDecoded() {
+        return description != null;
+    }
+
+    /**
+     * Returns whether this task has been given a shared copy of its description.
+     *
+     * @return True if the description is shared, false otherwise.
+     */
+    boolean isDescriptionShared() {
+        return lowerDescription != null;
+    }
+
+    /**
+     * Returns the description of this task in lowercase, for searching without regard to case.
+     * The lowercase form is shared once the task is interned, and is computed on each call until then.
+     *
+     * @return The lowercase task description.
+     */
+    String getLowerDescription() {
+        if (lowerDescription == null) {
+            return getDescription().toLowerCase();
+        }
+        return lowerDescription;
+    }
+
+    /**
+     * Replaces the description of this task with an equal shared copy.
+     *
+     * @param description The shared description, which must equal the current one.
+     * @param lowerDescription The shared lowercase form of the description.
+     */
+    synchronized void useDescription(String description, String lowerDescription) {
+        assert description.equals(getDescription()) : "Shared description should equal the task description";
+        this.description = description;
+        this.lowerDescription = lowerDescription;
+        this.rawText = null;
+    }
+
     /**
      * Returns whether this task is done.
      *
@@ -93,17 +186,78 @@ public class Task {
      * @return The file format string.
      */
     public String toFileFormat() {
-        return (isDone ? "1" : "0") + " | " + description;
+        return (isDone ? "1" : "0") + " | " + getDescription();
     }
 
     /**
-     * Returns a string representation of this task.
+     * Returns a string representation of this task, reusing the cached line if the task was shown recently.
      *
      * @return A formatted string showing the status icon and description.
      */
     @Override
-    public String toString() {
-        return "[" + getStatusIcon() + "] " + description;
+    public final String toString() {
+        return RENDER_CACHE.get(this);
+    }
+
+    /**
+     * Builds the line shown for this task. Subclasses add their type and times to it.
+     *
+     * @return A formatted string showing the status icon and description.
+     */
+    protected String render() {
+        return "[" + getStatusIcon() + "] " + getDescription();
+    }
+
+    /**
+     * Returns the line this task was last shown as.
+     *
+     * @return The rendered line, or null if it was dropped or the task has not been shown.
+     */
+    String getRenderedLine() {
+        return renderedLine;
+    }
+
+    /**
+     * Sets the line this task was last shown as.
+     * Only the {@link RenderCache} sets it, so that it can bound how many tasks keep a line.
+     *
+     * @param renderedLine The rendered line, or null to drop it.
+     */
+    void setRenderedLine(String renderedLine) {
+        this.renderedLine = renderedLine;
+    }
+
+    /**
+     * Returns the slot this task holds in the {@link RenderCache} ring.
+     *
+     * @return The slot, {@link RenderCache#NO_SLOT} or {@link RenderCache#NOT_CACHED}.
+     */
+    int getRenderSlot() {
+        return renderSlot;
+    }
+
+    /**
+     * Sets the slot this task holds in the {@link RenderCache} ring.
+     *
+     * @param renderSlot The slot, {@link RenderCache#NO_SLOT} or {@link RenderCache#NOT_CACHED}.
+     */
+    void setRenderSlot(int renderSlot) {
+        this.renderSlot = renderSlot;
+    }
+
+    /**
+     * Renders this task on every call without keeping its line, for a short-lived view that is not kept anywhere.
+     */
+    void disableRenderCache() {
+        assert renderedLine == null : "A view should not have been shown yet";
+        this.renderSlot = RenderCache.NOT_CACHED;
+    }
+
+    /**
+     * Drops the line kept for this task and stops keeping one, for a task that has left its list.
+     */
+    void releaseRenderedLine() {
+        RENDER_CACHE.release(this);
     }
 
     /**
@@ -122,16 +276,75 @@ public class Task {
             return false;
         }
         Task other = (Task) obj;
-        return description.equalsIgnoreCase(other.description);
+        return getDescription().equalsIgnoreCase(other.getDescription());
     }
 
     /**
      * Returns the hash code for this task.
+     * Everything the hash is based on never changes, so it is computed once and cached.
      *
      * @return The hash code based on the description.
      */
     @Override
-    public int hashCode() {
-        return description.toLowerCase().hashCode();
+    public final int hashCode() {
+        if (!isHashed) {
+            hash = computeHash();
+            isHashed = true;
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the hash code for this task, consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code based on the description.
+     */
+    protected int computeHash() {
+        return hashDescription();
+    }
+
+    private synchronized int hashDescription() {
+        if (description == null) {
+            return hashIgnoreCase(rawText, descriptionStart, descriptionEnd);
+        }
+        return hashIgnoreCase(description, 0, description.length());
+    }
+
+    /**
+     * Hashes a range of text so that strings that are equal ignoring case hash alike,
+     * without building a lowercase copy.
+     *
+     * @param text The text holding the range.
+     * @param start The index of the first character to hash.
+     * @param end The index after the last character to hash.
+     * @return The case-insensitive hash.
+     */
+    static int hashIgnoreCase(String text, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; ) {
+            int codePoint = text.codePointAt(i);
+            result = 31 * result + Character.toLowerCase(Character.toUpperCase(codePoint));
+            i += Character.charCount(codePoint);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ID given to this task by the list that holds it.
+     * Unlike the position of the task, the ID does not change when other tasks are deleted.
+     *
+     * @return The ID, which increases in list order.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of this task.
+     *
+     * @param id The ID given by the list that holds it.
+     */
+    void setId(long id) {
+        this.id = id;
     }
 }
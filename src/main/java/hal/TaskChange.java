@@ -0,0 +1,10 @@
+package hal;
+
+/**
+ * Represents the different kinds of changes that can be made to a task.
+ */
+public enum TaskChange {
+    ADDED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,262 @@
+package hal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Handles an append-only file of task changes that is replayed on top of a snapshot.
+ * Each record takes up one line in the form {@code OP | TASK}, where TASK is in the task file format.
+ */
+public class TaskJournal {
+    /** The index at which the task line starts in a well-formed record. */
+    static final int TASK_LINE_START = 4;
+
+    private static final String RECORD_SEPARATOR = " | ";
+    private static final char ADDED_MARKER = 'A';
+    private static final char UPDATED_MARKER = 'S';
+    private static final char DELETED_MARKER = 'X';
+
+    private final Path path;
+    private int recordCount;
+    private long byteCount;
+    private boolean isDurable;
+
+    /**
+     * Constructs a TaskJournal backed by the specified file.
+     *
+     * @param filePath The path to the journal file.
+     */
+    public TaskJournal(String filePath) {
+        assert filePath != null : "Journal path should not be null";
+        this.path = Paths.get(filePath);
+        this.recordCount = 0;
+        this.byteCount = 0;
+    }
+
+    /**
+     * Appends a record of the given change to the journal.
+     *
+     * @param change The kind of change made to the task.
+     * @param task The task after the change.
+     * @throws HalException If the record cannot be written.
+     */
+    public void append(TaskChange change, Task task) throws HalException {
+        assert change != null && task != null : "Change and task should not be null";
+        append(toRecord(change, task) + "\n", 1);
+    }
+
+    /**
+     * Appends already encoded records to the journal in a single write.
+     *
+     * @param records The records, each terminated by a line break.
+     * @param count The number of records.
+     * @throws HalException If the records cannot be written.
+     */
+    public void append(String records, int count) throws HalException {
+        assert records != null && count > 0 : "Records should not be empty";
+        byteCount += appendRecords(records);
+        recordCount += count;
+    }
+
+    /**
+     * Sets whether each append is forced to disk before it returns.
+     * Combined with write-behind, this costs one fsync per batch of records rather than one per change.
+     *
+     * @param isDurable True to force appends to disk, false otherwise.
+     */
+    public void setDurable(boolean isDurable) {
+        this.isDurable = isDurable;
+    }
+
+    /**
+     * Encodes a change as a single journal record, without the line terminator.
+     *
+     * @param change The kind of change made to the task.
+     * @param task The task after the change.
+     * @return The encoded record.
+     */
+    public static String toRecord(TaskChange change, Task task) {
+        return toMarker(change) + RECORD_SEPARATOR + task.toFileFormat();
+    }
+
+    private int appendRecords(String records) throws HalException {
+        try {
+            File directory = path.toFile().getParentFile();
+            if (directory != null && !directory.exists()) {
+                directory.mkdirs();
+            }
+            byte[] bytes = records.getBytes(StandardCharsets.UTF_8);
+            if (!isDurable) {
+                Files.write(path, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                return bytes.length;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            return bytes.length;
+        } catch (IOException e) {
+            throw new HalException("Error: Could not write to journal file!");
+        }
+    }
+
+    /**
+     * Reads all complete records from the journal.
+     * A trailing record without a line terminator was cut off by a crash, so it is ignored and truncated away.
+     * Otherwise the next append would be joined onto it and lost along with it.
+     *
+     * @return The records in the order they were appended.
+     * @throws HalException If the journal exists but cannot be read.
+     */
+    public ArrayList<String> readRecords() throws HalException {
+        ArrayList<String> records = new ArrayList<>();
+        if (!Files.exists(path)) {
+            recordCount = 0;
+            byteCount = 0;
+            return records;
+        }
+        String content;
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            int completeLength = bytes.length;
+            // A line break byte never occurs inside a multi-byte UTF-8 character
+            while (completeLength > 0 && bytes[completeLength - 1] != '\n') {
+                completeLength--;
+            }
+            if (completeLength < bytes.length) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(completeLength);
+                }
+            }
+            byteCount = completeLength;
+            content = new String(bytes, 0, completeLength, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new HalException("Error: Could not load journal file!");
+        }
+        int start = 0;
+        int end = content.indexOf('\n');
+        while (end != -1) {
+            if (end > start) {
+                records.add(content.substring(start, end));
+            }
+            start = end + 1;
+            end = content.indexOf('\n', start);
+        }
+        recordCount = records.size();
+        return records;
+    }
+
+    /**
+     * Removes all records from the journal.
+     *
+     * @throws HalException If the journal cannot be cleared.
+     */
+    public void clear() throws HalException {
+        try {
+            Files.deleteIfExists(path);
+            recordCount = 0;
+            byteCount = 0;
+        } catch (IOException e) {
+            throw new HalException("Error: Could not clear journal file!");
+        }
+    }
+
+    /**
+     * Moves all records of this journal into another journal, replacing its contents.
+     * This journal is left empty.
+     *
+     * @param target The journal to move the records to.
+     * @throws HalException If the journal file cannot be moved.
+     */
+    public void moveTo(TaskJournal target) throws HalException {
+        assert target != null && target != this : "Target journal should be a different journal";
+        try {
+            if (Files.exists(path)) {
+                Files.move(path, target.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                Files.deleteIfExists(target.path);
+            }
+        } catch (IOException e) {
+            throw new HalException("Error: Could not move journal file!");
+        }
+        target.recordCount = recordCount;
+        target.byteCount = byteCount;
+        recordCount = 0;
+        byteCount = 0;
+    }
+
+    /**
+     * Returns whether the journal file holds no records.
+     *
+     * @return True if the journal file is missing or empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return !Files.exists(path) || path.toFile().length() == 0;
+    }
+
+    /**
+     * Returns the number of records in the journal.
+     *
+     * @return The record count.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the size of the journal in bytes.
+     *
+     * @return The number of bytes written to the journal.
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Returns the kind of change stored in a record.
+     *
+     * @param record The journal record.
+     * @return The change, or null if the record is malformed.
+     */
+    public static TaskChange getChange(String record) {
+        if (record.length() <= TASK_LINE_START
+                || !record.startsWith(RECORD_SEPARATOR, 1)) {
+            return null;
+        }
+        switch (record.charAt(0)) {
+        case ADDED_MARKER:
+            return TaskChange.ADDED;
+        case UPDATED_MARKER:
+            return TaskChange.UPDATED;
+        case DELETED_MARKER:
+            return TaskChange.DELETED;
+        default:
+            return null;
+        }
+    }
+
+    private static char toMarker(TaskChange change) {
+        switch (change) {
+        case ADDED:
+            return ADDED_MARKER;
+        case UPDATED:
+            return UPDATED_MARKER;
+        case DELETED:
+            return DELETED_MARKER;
+        default:
+            throw new HalException("Error: Unknown task change!");
+        }
+    }
+}
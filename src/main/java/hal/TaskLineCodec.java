@@ -0,0 +1,172 @@
+package hal;
+
+/**
+ * Decodes task lines in the {@code TYPE | STATUS | DESCRIPTION [| TIME [| TIME]]} file format.
+ * Lines are scanned once by offset instead of being split with a regular expression,
+ * and malformed lines are reported through a status code instead of an exception.
+ * A codec keeps the field offsets of the last line it scanned, so each thread needs its own codec.
+ * Decoded tasks keep a reference to the line and only cut their description out of it when first used.
+ */
+public class TaskLineCodec {
+    public static final int OK = 0;
+    public static final int MISSING_FIELD = 1;
+    public static final int INVALID_TYPE = 2;
+    public static final int INVALID_DATE = 3;
+
+    private static final String SEPARATOR = " | ";
+    private static final int MAX_FIELDS = 5;
+    private static final int MIN_TASK_FIELDS = 3;
+    private static final int DEADLINE_FIELDS = 4;
+    private static final int EVENT_FIELDS = 5;
+    private static final int TYPE_INDEX = 0;
+    private static final int STATUS_INDEX = 1;
+    private static final int DESCRIPTION_INDEX = 2;
+    private static final int FIRST_TIME_INDEX = 3;
+    private static final int SECOND_TIME_INDEX = 4;
+
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private int fieldCount;
+    private int status;
+
+    /**
+     * Decodes a whole line into a task.
+     *
+     * @param line The line to decode.
+     * @return The decoded task, or null if the line is malformed.
+     */
+    public Task decode(CharSequence line) {
+        return decode(line, 0, line.length());
+    }
+
+    /**
+     * Decodes the line between the given offsets into a task.
+     * The reason a line was rejected can be read from {@link #getStatus()}.
+     *
+     * @param text The text holding the line.
+     * @param start The index of the first character of the line.
+     * @param end The index after the last character of the line.
+     * @return The decoded task, or null if the line is malformed.
+     */
+    public Task decode(CharSequence text, int start, int end) {
+        assert text != null && start >= 0 && start <= end && end <= text.length() : "Line bounds should be valid";
+        tokenize(text, start, end);
+        if (fieldCount < MIN_TASK_FIELDS) {
+            return reject(MISSING_FIELD);
+        }
+        if (fieldEnds[TYPE_INDEX] - fieldStarts[TYPE_INDEX] != 1) {
+            return reject(INVALID_TYPE);
+        }
+        if (isBlank(text, fieldStarts[DESCRIPTION_INDEX], fieldEnds[DESCRIPTION_INDEX])) {
+            return reject(MISSING_FIELD);
+        }
+
+        String rawText = text.toString();
+        Task task;
+        switch (text.charAt(fieldStarts[TYPE_INDEX])) {
+        case 'T':
+            task = new Todo(rawText, fieldStarts[DESCRIPTION_INDEX], fieldEnds[DESCRIPTION_INDEX]);
+            break;
+        case 'D':
+            task = decodeDeadline(rawText);
+            break;
+        case 'E':
+            task = decodeEvent(rawText);
+            break;
+        default:
+            return reject(INVALID_TYPE);
+        }
+        if (task == null) {
+            return null;
+        }
+        if (isDone(text)) {
+            task.markAsDone();
+        }
+        status = OK;
+        return task;
+    }
+
+    /**
+     * Returns why the last line was rejected.
+     *
+     * @return {@link #OK} if the last line was decoded, or the reason it was rejected.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    private Task decodeDeadline(String text) {
+        if (fieldCount < DEADLINE_FIELDS) {
+            return reject(MISSING_FIELD);
+        }
+        long by = parseTime(text, FIRST_TIME_INDEX);
+        if (by == DateTimeCodec.INVALID) {
+            return reject(INVALID_DATE);
+        }
+        return new Deadline(text, fieldStarts[DESCRIPTION_INDEX], fieldEnds[DESCRIPTION_INDEX], by);
+    }
+
+    private Task decodeEvent(String text) {
+        if (fieldCount < EVENT_FIELDS) {
+            return reject(MISSING_FIELD);
+        }
+        long from = parseTime(text, FIRST_TIME_INDEX);
+        long to = parseTime(text, SECOND_TIME_INDEX);
+        if (from == DateTimeCodec.INVALID || to == DateTimeCodec.INVALID) {
+            return reject(INVALID_DATE);
+        }
+        return new Event(text, fieldStarts[DESCRIPTION_INDEX], fieldEnds[DESCRIPTION_INDEX], from, to);
+    }
+
+    private Task reject(int reason) {
+        status = reason;
+        return null;
+    }
+
+    // Splits like String.split(" \\| "), but keeps at most MAX_FIELDS fields and drops trailing empty ones
+    private void tokenize(CharSequence text, int start, int end) {
+        fieldCount = 0;
+        int fieldStart = start;
+        while (fieldCount < MAX_FIELDS) {
+            int separator = indexOfSeparator(text, fieldStart, end);
+            int fieldEnd = separator == -1 ? end : separator;
+            fieldStarts[fieldCount] = fieldStart;
+            fieldEnds[fieldCount] = fieldEnd;
+            fieldCount++;
+            if (separator == -1) {
+                break;
+            }
+            fieldStart = separator + SEPARATOR.length();
+        }
+        while (fieldCount > 0 && fieldStarts[fieldCount - 1] == fieldEnds[fieldCount - 1]) {
+            fieldCount--;
+        }
+    }
+
+    private static int indexOfSeparator(CharSequence text, int from, int end) {
+        for (int i = from; i + SEPARATOR.length() <= end; i++) {
+            if (text.charAt(i + 1) == '|' && text.charAt(i) == ' ' && text.charAt(i + 2) == ' ') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isDone(CharSequence text) {
+        return fieldEnds[STATUS_INDEX] - fieldStarts[STATUS_INDEX] == 1
+                && text.charAt(fieldStarts[STATUS_INDEX]) == '1';
+    }
+
+    private long parseTime(CharSequence text, int index) {
+        return DateTimeCodec.parseIsoMinute(text, fieldStarts[index], fieldEnds[index]);
+    }
+}
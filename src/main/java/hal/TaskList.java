@@ -1,18 +1,75 @@
 package hal;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 
 /**
  * Manages a list of tasks.
+ * Each added task is given an ID that stays the same while it is in the list, so it can be looked up
+ * regardless of how its position changes.
+ * Tasks are held in an array list, which can be swapped for a {@link CountedBTreeList} once the list
+ * is large enough that deleting from the front of an array would shift too many tasks.
+ * A hash index, a trigram index, a time index and an interval tree of the events are kept in step
+ * with the list, so duplicates, search results, tasks due in a period and overlapping events are
+ * found without scanning it. Keywords too short to have a trigram are still found by a scan.
+ * Descriptions can be interned in a {@link DescriptionPool}, so that tasks repeating a description share one copy.
+ * Loaded tasks whose descriptions are still in their raw lines are only interned and added to the trigram index
+ * on the first search, so that loading a large list does not decode every description.
  */
 public class TaskList {
-    private ArrayList<Task> tasks;
+    private static final String AND_SEPARATOR = " /and ";
+    private static final String OR_SEPARATOR = " /or ";
+
+    private List<Task> tasks;
+    private final int treeThreshold;
+    // Maps each task to the equal task stored in the list
+    private HashMap<Task, Task> taskIndex;
+    private LongHashMap<Task> tasksById;
+    private long nextId;
+    // Null if descriptions are not interned
+    private final DescriptionPool descriptionPool;
+    private TrigramIndex trigramIndex;
+    private boolean isSearchIndexed;
+    private TimeIndex timeIndex;
+    private EventIntervalTree eventTree;
 
     /**
-     * Constructs an empty TaskList.
+     * Constructs an empty TaskList that always holds its tasks in an array list.
      */
     public TaskList() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs an empty TaskList that moves its tasks into a {@link CountedBTreeList} once it holds
+     * the given number of tasks, so that positional lookups and deletes take O(log N).
+     *
+     * @param treeThreshold The number of tasks from which the tree is used.
+     */
+    public TaskList(int treeThreshold) {
+        this(treeThreshold, true);
+    }
+
+    /**
+     * Constructs an empty TaskList that moves its tasks into a {@link CountedBTreeList} once it holds
+     * the given number of tasks, and that may skip interning descriptions.
+     * Interning saves memory when descriptions repeat, but costs memory when nearly all of them are distinct.
+     *
+     * @param treeThreshold The number of tasks from which the tree is used.
+     * @param isInterning Whether tasks with the same description share one copy of it.
+     */
+    public TaskList(int treeThreshold, boolean isInterning) {
+        assert treeThreshold > 0 : "Tree threshold should be positive";
+        this.treeThreshold = treeThreshold;
         this.tasks = new ArrayList<>();
+        this.taskIndex = new HashMap<>();
+        this.tasksById = new LongHashMap<>();
+        this.nextId = 1;
+        this.descriptionPool = isInterning ? new DescriptionPool() : null;
+        this.trigramIndex = new TrigramIndex();
+        this.timeIndex = new TimeIndex();
+        this.eventTree = new EventIntervalTree();
     }
 
     /**
@@ -26,7 +83,23 @@ public class TaskList {
         if (isDuplicate(task)) {
             return false;
         }
+        // Tasks are only ever appended, so IDs increase in list order
+        task.setId(nextId++);
         tasks.add(task);
+        if (tasks.size() >= treeThreshold && tasks instanceof ArrayList) {
+            tasks = new CountedBTreeList<>(tasks);
+        }
+        taskIndex.put(task, task);
+        tasksById.put(task.getId(), task);
+        if (isSearchIndexed) {
+            indexForSearch(task);
+        } else if (descriptionPool != null && task.isDescriptionDecoded()) {
+            descriptionPool.intern(task);
+        }
+        timeIndex.add(task);
+        if (task instanceof Event) {
+            eventTree.add((Event) task);
+        }
         return true;
     }
 
@@ -38,12 +111,7 @@ public class TaskList {
      */
     public boolean isDuplicate(Task task) {
         assert task != null : "Task should not be null";
-        for (Task existingTask : tasks) {
-            if (existingTask.equals(task)) {
-                return true;
-            }
-        }
-        return false;
+        return taskIndex.containsKey(task);
     }
 
     /**
@@ -55,10 +123,9 @@ public class TaskList {
     public ArrayList<Integer> findDuplicateIndices(Task task) {
         assert task != null : "Task should not be null";
         ArrayList<Integer> duplicateIndices = new ArrayList<>();
-        for (int i = 0; i < tasks.size(); i++) {
-            if (tasks.get(i).equals(task)) {
-                duplicateIndices.add(i);
-            }
+        Task existingTask = taskIndex.get(task);
+        if (existingTask != null) {
+            duplicateIndices.add(indexOf(existingTask.getId()));
         }
         return duplicateIndices;
     }
@@ -148,17 +215,77 @@ public class TaskList {
         if (index >= 0 && index < tasks.size()) {
             Task deletedTask = tasks.remove(index);
             assert deletedTask != null : "Deleted task should not be null";
+            taskIndex.remove(deletedTask);
+            tasksById.remove(deletedTask.getId());
+            if (descriptionPool != null && deletedTask.isDescriptionShared()) {
+                descriptionPool.release(deletedTask);
+            }
+            timeIndex.remove(deletedTask);
+            if (deletedTask instanceof Event) {
+                eventTree.remove((Event) deletedTask);
+            }
+            if (isSearchIndexed) {
+                trigramIndex.remove();
+                if (trigramIndex.shouldRebuild()) {
+                    trigramIndex.rebuild(tasks);
+                }
+            }
+            deletedTask.releaseRenderedLine();
             return deletedTask;
         }
         return null;
     }
 
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The task, or null if no task in the list has the ID.
+     */
+    public Task getTaskById(long id) {
+        return tasksById.get(id);
+    }
+
+    /**
+     * Returns the current position of the task with the given ID.
+     * Positions are not stored, since deleting a task would shift every later one, so the position is found
+     * by a binary search over the IDs. That takes O(log N) lookups, each of which is O(log N) once the tasks
+     * are held in a {@link CountedBTreeList}. It is only done once for each command that refers to a task by ID.
+     *
+     * @param id The ID of the task.
+     * @return The 0-based index of the task, or -1 if no task in the list has the ID.
+     */
+    public int getIndexById(long id) {
+        if (tasksById.get(id) == null) {
+            return -1;
+        }
+        return indexOf(id);
+    }
+
+    // Binary search on the IDs, which are in list order
+    private int indexOf(long id) {
+        int low = 0;
+        int high = tasks.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleId = tasks.get(middle).getId();
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Returns all tasks in the list.
      *
      * @return The list of all tasks.
      */
-    public ArrayList<Task> getAllTasks() {
+    public List<Task> getAllTasks() {
         assert tasks != null : "Task list should not be null";
         return tasks;
     }
@@ -171,15 +298,144 @@ public class TaskList {
      */
     public ArrayList<Task> findTasks(String keyword) {
         assert keyword != null : "Keyword should not be null";
-        ArrayList<Task> foundTasks = new ArrayList<>();
+        if (!isSearchIndexed) {
+            for (Task task : tasks) {
+                indexForSearch(task);
+            }
+            isSearchIndexed = true;
+        }
         String lowerKeyword = keyword.toLowerCase();
+        if (lowerKeyword.length() >= TrigramIndex.GRAM_LENGTH) {
+            return findTrigramCandidates(lowerKeyword);
+        }
+        ArrayList<Task> foundTasks = new ArrayList<>();
         for (Task task : tasks) {
             assert task != null : "Task in list should not be null";
-            if (task.getDescription().toLowerCase().contains(lowerKeyword)) {
+            if (task.getLowerDescription().contains(lowerKeyword)) {
                 foundTasks.add(task);
             }
         }
         assert foundTasks != null : "Found tasks list should not be null";
         return foundTasks;
     }
+
+    private void indexForSearch(Task task) {
+        if (descriptionPool != null && !task.isDescriptionShared()) {
+            descriptionPool.intern(task);
+        }
+        trigramIndex.add(task);
+    }
+
+    private ArrayList<Task> findTrigramCandidates(String lowerKeyword) {
+        ArrayList<Task> foundTasks = new ArrayList<>();
+        // The IDs are ascending, so the tasks come out in list order without looking up their positions
+        for (long id : trigramIndex.findCandidates(lowerKeyword)) {
+            Task task = tasksById.get(id);
+            // Deleted tasks stay in the trigram index until it is rebuilt
+            if (task != null && task.getLowerDescription().contains(lowerKeyword)) {
+                foundTasks.add(task);
+            }
+        }
+        return foundTasks;
+    }
+
+    /**
+     * Finds tasks matching a query of keywords joined by {@code /and} and {@code /or}.
+     * Each keyword matches tasks whose description contains it, and {@code /and} binds tighter than {@code /or}.
+     * A query without either separator is a single keyword.
+     *
+     * @param query The query to search for.
+     * @return The matching tasks in list order.
+     * @throws HalException If the query has an empty keyword.
+     */
+    public ArrayList<Task> searchTasks(String query) throws HalException {
+        assert query != null : "Query should not be null";
+        ArrayList<Task> foundTasks = new ArrayList<>();
+        for (String clause : query.split(OR_SEPARATOR)) {
+            ArrayList<Task> clauseTasks = null;
+            for (String keyword : clause.split(AND_SEPARATOR)) {
+                if (keyword.trim().isEmpty()) {
+                    throw new HalException("Error: Please provide a keyword to search for!");
+                }
+                ArrayList<Task> keywordTasks = findTasks(keyword.trim());
+                clauseTasks = clauseTasks == null ? keywordTasks : intersect(clauseTasks, keywordTasks);
+            }
+            foundTasks = union(foundTasks, clauseTasks);
+        }
+        return foundTasks;
+    }
+
+    // Merges two lists in list order, keeping tasks found in either
+    private static ArrayList<Task> union(ArrayList<Task> first, ArrayList<Task> second) {
+        ArrayList<Task> result = new ArrayList<>(first.size() + second.size());
+        int i = 0;
+        int j = 0;
+        while (i < first.size() && j < second.size()) {
+            long firstId = first.get(i).getId();
+            long secondId = second.get(j).getId();
+            if (firstId <= secondId) {
+                result.add(first.get(i++));
+                if (firstId == secondId) {
+                    j++;
+                }
+            } else {
+                result.add(second.get(j++));
+            }
+        }
+        result.addAll(first.subList(i, first.size()));
+        result.addAll(second.subList(j, second.size()));
+        return result;
+    }
+
+    // Merges two lists in list order, keeping tasks found in both
+    private static ArrayList<Task> intersect(ArrayList<Task> first, ArrayList<Task> second) {
+        ArrayList<Task> result = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < first.size() && j < second.size()) {
+            long firstId = first.get(i).getId();
+            long secondId = second.get(j).getId();
+            if (firstId < secondId) {
+                i++;
+            } else if (firstId > secondId) {
+                j++;
+            } else {
+                result.add(first.get(i));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds deadlines due and events starting between two times, both inclusive.
+     *
+     * @param startMinute The start of the period as an epoch minute.
+     * @param endMinute The end of the period as an epoch minute.
+     * @return The tasks due in the period, in order of due time.
+     */
+    public ArrayList<Task> findTasksDue(long startMinute, long endMinute) {
+        return timeIndex.find(startMinute, endMinute);
+    }
+
+    /**
+     * Finds the events in the list that overlap the given event, not counting the event itself.
+     *
+     * @param event The event to check.
+     * @return The overlapping events in order of start time.
+     */
+    public ArrayList<Task> findOverlappingEvents(Event event) {
+        assert event != null : "Event should not be null";
+        return eventTree.findOverlapping(event);
+    }
+
+    /**
+     * Finds every pair of events in the list that overlap each other.
+     *
+     * @return The overlapping pairs, each with the earlier event first, in order of start time.
+     */
+    public ArrayList<Event[]> findConflicts() {
+        return eventTree.findConflicts();
+    }
 }
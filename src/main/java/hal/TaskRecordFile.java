@@ -0,0 +1,269 @@
+package hal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Stores tasks as fixed-layout records that can be updated in place.
+ * Each record is a live flag followed by a binary snapshot record, so the done flag of every task sits at a
+ * known file offset. Marking a task is a single one-byte write, deleting a task overwrites its live flag with
+ * a tombstone, and new tasks are appended. Tombstoned records are reclaimed later by rewriting the file.
+ */
+public class TaskRecordFile {
+    private static final int MAGIC = 0x48414C52;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int LIVE_OFFSET = 0;
+    private static final int SNAPSHOT_RECORD_OFFSET = 1;
+    private static final int DONE_FLAG_OFFSET = SNAPSHOT_RECORD_OFFSET + BinarySnapshot.DONE_OFFSET;
+    private static final byte LIVE = 1;
+    private static final byte TOMBSTONE = 0;
+    private static final int MIN_TOMBSTONES_TO_RECLAIM = 64;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path path;
+    // Tasks never hold duplicates, so a task's own equality is a stable key for its record
+    private final HashMap<Task, Long> recordOffsets;
+    private long endOffset;
+    private int tombstoneCount;
+    private boolean isDurable;
+
+    /**
+     * Constructs a TaskRecordFile backed by the specified file.
+     *
+     * @param filePath The path to the record file.
+     */
+    public TaskRecordFile(String filePath) {
+        assert filePath != null : "Record file path should not be null";
+        this.path = Path.of(filePath);
+        this.recordOffsets = new HashMap<>();
+    }
+
+    /**
+     * Sets whether each write is forced to disk before it returns.
+     *
+     * @param isDurable True to force writes to disk, false otherwise.
+     */
+    public void setDurable(boolean isDurable) {
+        this.isDurable = isDurable;
+    }
+
+    /**
+     * Returns whether the record file exists.
+     *
+     * @return True if the file exists, false otherwise.
+     */
+    public boolean exists() {
+        return path.toFile().exists();
+    }
+
+    /**
+     * Loads all live tasks from the record file.
+     * A trailing record cut off by a crash is ignored and truncated away. Any other record that cannot be read
+     * fails the load and leaves the file untouched, so the records after it are not lost.
+     *
+     * @return The live tasks in the order they were added.
+     * @throws HalException If the file cannot be read, is not a valid record file or has a corrupted record.
+     */
+    public ArrayList<Task> load() throws HalException {
+        recordOffsets.clear();
+        tombstoneCount = 0;
+        ArrayList<Task> tasks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size < FILE_HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new HalException("Error: Record file is corrupted!");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new HalException("Error: Record file has an unsupported format!");
+            }
+            int offset = FILE_HEADER_SIZE;
+            while (!isTornTail(buffer, offset)) {
+                Task task = BinarySnapshot.readRecord(buffer, offset + SNAPSHOT_RECORD_OFFSET);
+                byte liveFlag = buffer.get(offset + LIVE_OFFSET);
+                if (task == null || (liveFlag != LIVE && liveFlag != TOMBSTONE)) {
+                    throw new HalException("Error: Record file is corrupted!");
+                }
+                if (liveFlag == LIVE) {
+                    recordOffsets.put(task, (long) offset);
+                    tasks.add(task);
+                } else {
+                    tombstoneCount++;
+                }
+                offset += getRecordSize(buffer.getInt(offset + SNAPSHOT_RECORD_OFFSET + BinarySnapshot.LENGTH_OFFSET));
+            }
+            endOffset = offset;
+            if (endOffset < size) {
+                channel.truncate(endOffset);
+            }
+        } catch (IOException e) {
+            throw new HalException("Error: Could not load record file!");
+        }
+        return tasks;
+    }
+
+    /**
+     * Appends a record for a newly added task.
+     *
+     * @param task The task to append.
+     * @throws HalException If the record cannot be written.
+     */
+    public void append(Task task) throws HalException {
+        try {
+            byte[] record = encodeRecord(task);
+            writeAt(endOffset, ByteBuffer.wrap(record));
+            recordOffsets.put(task, endOffset);
+            endOffset += record.length;
+        } catch (IOException e) {
+            throw new HalException("Error: Could not write to record file!");
+        }
+    }
+
+    /**
+     * Overwrites the done flag of a task in place.
+     *
+     * @param task The task whose done flag changed.
+     * @return True if the flag was written, false if the task has no record.
+     * @throws HalException If the flag cannot be written.
+     */
+    public boolean updateDone(Task task) throws HalException {
+        return writeFlag(task, DONE_FLAG_OFFSET, task.isDone() ? BinarySnapshot.DONE : BinarySnapshot.NOT_DONE);
+    }
+
+    /**
+     * Marks the record of a deleted task with a tombstone.
+     *
+     * @param task The deleted task.
+     * @return True if the tombstone was written, false if the task has no record.
+     * @throws HalException If the tombstone cannot be written.
+     */
+    public boolean delete(Task task) throws HalException {
+        if (!writeFlag(task, LIVE_OFFSET, TOMBSTONE)) {
+            return false;
+        }
+        recordOffsets.remove(task);
+        tombstoneCount++;
+        return true;
+    }
+
+    /**
+     * Returns whether enough records are tombstoned that rewriting the file is worthwhile.
+     *
+     * @return True if at least half the records are tombstones, false otherwise.
+     */
+    public boolean shouldReclaim() {
+        return tombstoneCount >= MIN_TOMBSTONES_TO_RECLAIM && tombstoneCount >= recordOffsets.size();
+    }
+
+    /**
+     * Replaces the file with records for the given tasks only, which reclaims all tombstoned space.
+     * The new file is forced to disk and then atomically moved over the old one.
+     *
+     * @param tasks The live tasks.
+     * @throws HalException If the file cannot be written.
+     */
+    public void rewrite(Task... tasks) throws HalException {
+        File directory = path.toFile().getParentFile();
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+        Path tempPath = Path.of(path + TEMP_SUFFIX);
+        HashMap<Task, Long> offsets = new HashMap<>();
+        long offset = FILE_HEADER_SIZE;
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (Task task : tasks) {
+                offsets.put(task, offset);
+                offset += writeRecord(out, task);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new HalException("Error: Could not save record file!");
+        }
+        try {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new HalException("Error: Could not save record file!");
+        }
+        recordOffsets.clear();
+        recordOffsets.putAll(offsets);
+        endOffset = offset;
+        tombstoneCount = 0;
+    }
+
+    private boolean writeFlag(Task task, int flagOffset, byte value) throws HalException {
+        Long offset = recordOffsets.get(task);
+        if (offset == null) {
+            return false;
+        }
+        try {
+            writeAt(offset + flagOffset, ByteBuffer.wrap(new byte[] {value}));
+        } catch (IOException e) {
+            throw new HalException("Error: Could not write to record file!");
+        }
+        return true;
+    }
+
+    private void writeAt(long position, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            long current = position;
+            while (buffer.hasRemaining()) {
+                current += channel.write(buffer, current);
+            }
+            if (isDurable) {
+                channel.force(false);
+            }
+        }
+    }
+
+    private static byte[] encodeRecord(Task task) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeRecord(new DataOutputStream(bytes), task);
+        return bytes.toByteArray();
+    }
+
+    private static int writeRecord(DataOutputStream out, Task task) throws IOException {
+        byte[] description = BinarySnapshot.encodeDescription(task);
+        out.writeByte(LIVE);
+        BinarySnapshot.writeRecordHeader(out, task, description.length);
+        out.write(description);
+        return getRecordSize(description.length);
+    }
+
+    /**
+     * Returns whether the record at an offset was cut off by a crash, meaning its header or the description
+     * length its header declares runs past the end of the file. Reaching the end of the file also counts.
+     */
+    private static boolean isTornTail(ByteBuffer buffer, int offset) {
+        int remaining = buffer.limit() - offset;
+        if (remaining < SNAPSHOT_RECORD_OFFSET + BinarySnapshot.RECORD_HEADER_SIZE) {
+            return true;
+        }
+        int length = buffer.getInt(offset + SNAPSHOT_RECORD_OFFSET + BinarySnapshot.LENGTH_OFFSET);
+        return length > remaining - getRecordSize(0);
+    }
+
+    private static int getRecordSize(int descriptionLength) {
+        return SNAPSHOT_RECORD_OFFSET + BinarySnapshot.RECORD_HEADER_SIZE + descriptionLength;
+    }
+}
@@ -0,0 +1,86 @@
+package hal;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps deadlines and events sorted by the minute they fall due, so time range queries
+ * take O(log N + k) instead of a scan of the whole list.
+ * Deadlines are keyed by their deadline and events by their start time.
+ * Tasks due in the same minute are kept in list order.
+ */
+public class TimeIndex {
+    private final TreeMap<Long, ArrayList<Task>> tasksByMinute;
+
+    /**
+     * Constructs an empty TimeIndex.
+     */
+    public TimeIndex() {
+        this.tasksByMinute = new TreeMap<>();
+    }
+
+    /**
+     * Adds a task to the index if it has a due time.
+     * Tasks must be added in list order.
+     *
+     * @param task The task to add.
+     */
+    public void add(Task task) {
+        long minute = getDueMinute(task);
+        if (minute != DateTimeCodec.INVALID) {
+            tasksByMinute.computeIfAbsent(minute, key -> new ArrayList<>()).add(task);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The task to remove.
+     */
+    public void remove(Task task) {
+        long minute = getDueMinute(task);
+        ArrayList<Task> bucket = tasksByMinute.get(minute);
+        if (bucket == null) {
+            return;
+        }
+        bucket.removeIf(existingTask -> existingTask.getId() == task.getId());
+        if (bucket.isEmpty()) {
+            tasksByMinute.remove(minute);
+        }
+    }
+
+    /**
+     * Returns the tasks due between two minutes, both inclusive.
+     *
+     * @param startMinute The first epoch minute of the range.
+     * @param endMinute The last epoch minute of the range.
+     * @return The tasks in order of due time.
+     */
+    public ArrayList<Task> find(long startMinute, long endMinute) {
+        ArrayList<Task> foundTasks = new ArrayList<>();
+        if (startMinute > endMinute) {
+            return foundTasks;
+        }
+        for (Map.Entry<Long, ArrayList<Task>> entry
+                : tasksByMinute.subMap(startMinute, true, endMinute, true).entrySet()) {
+            foundTasks.addAll(entry.getValue());
+        }
+        return foundTasks;
+    }
+
+    /**
+     * Returns the minute a task falls due.
+     *
+     * @param task The task.
+     * @return The deadline of a deadline, the start of an event, or {@link DateTimeCodec#INVALID} otherwise.
+     */
+    static long getDueMinute(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getByMinute();
+        } else if (task instanceof Event) {
+            return ((Event) task).getFromMinute();
+        }
+        return DateTimeCodec.INVALID;
+    }
+}
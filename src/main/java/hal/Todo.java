@@ -13,6 +13,17 @@ public class Todo extends Task {
         super(description, TaskType.TODO);
     }
 
+    /**
+     * Constructs a Todo loaded from a data file, whose description is decoded on first use.
+     *
+     * @param rawText The text holding the description.
+     * @param descriptionStart The index of the first character of the description.
+     * @param descriptionEnd The index after the last character of the description.
+     */
+    Todo(String rawText, int descriptionStart, int descriptionEnd) {
+        super(TaskType.TODO, rawText, descriptionStart, descriptionEnd);
+    }
+
     /**
      * Converts this todo to a format suitable for saving to a file.
      *
@@ -24,12 +35,12 @@ public class Todo extends Task {
     }
 
     /**
-     * Returns a string representation of this todo.
+     * Builds the line shown for this todo.
      *
      * @return A formatted string showing the todo type.
      */
     @Override
-    public String toString() {
-        return "[T]" + super.toString();
+    protected String render() {
+        return "[T]" + super.render();
     }
 }
@@ -0,0 +1,138 @@
+package hal;
+
+import java.util.Arrays;
+
+/**
+ * Maps every three-character sequence of the lowercase task descriptions to the tasks that contain it.
+ * A description can only contain a keyword if it contains every trigram of the keyword, so intersecting
+ * their posting lists narrows a substring search down to a few candidates without a full scan.
+ * Posting lists are primitive arrays of task IDs in list order. Deleted tasks are left in
+ * them and skipped when candidates are resolved, until there are enough of them to rebuild the index.
+ */
+public class TrigramIndex {
+    /** The shortest keyword that has a trigram. */
+    public static final int GRAM_LENGTH = 3;
+
+    private static final int INITIAL_POSTING_CAPACITY = 4;
+    private static final int MIN_DELETIONS_TO_REBUILD = 1024;
+
+    private final LongHashMap<PostingList> postings;
+    private int indexedCount;
+    private int deletedCount;
+
+    /**
+     * Constructs an empty TrigramIndex.
+     */
+    public TrigramIndex() {
+        this.postings = new LongHashMap<>();
+    }
+
+    /**
+     * Adds a task to the posting list of every trigram in its description.
+     * Tasks must be added in list order.
+     *
+     * @param task The task to add.
+     */
+    public void add(Task task) {
+        String text = task.getLowerDescription();
+        long id = task.getId();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            long gram = toGram(text, i);
+            PostingList postingList = postings.get(gram);
+            if (postingList == null) {
+                postingList = new PostingList();
+                postings.put(gram, postingList);
+            }
+            postingList.add(id);
+        }
+        indexedCount++;
+    }
+
+    /**
+     * Records that a task was deleted. Its postings stay until the index is rebuilt.
+     */
+    public void remove() {
+        deletedCount++;
+    }
+
+    /**
+     * Returns whether enough deleted tasks remain in the posting lists that the index should be rebuilt.
+     *
+     * @return True if at least half of the indexed tasks have been deleted, false otherwise.
+     */
+    public boolean shouldRebuild() {
+        return deletedCount >= MIN_DELETIONS_TO_REBUILD && deletedCount * 2 >= indexedCount;
+    }
+
+    /**
+     * Replaces the contents of the index with the given tasks.
+     *
+     * @param tasks The live tasks in list order.
+     */
+    public void rebuild(Iterable<Task> tasks) {
+        postings.clear();
+        indexedCount = 0;
+        deletedCount = 0;
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Returns the IDs of the tasks that contain every trigram of the keyword.
+     * The result may include deleted tasks and tasks that contain the trigrams in a different order,
+     * so each candidate still has to be checked.
+     *
+     * @param lowerKeyword The lowercase keyword, at least {@link #GRAM_LENGTH} characters long.
+     * @return The candidate IDs in ascending order.
+     */
+    public long[] findCandidates(String lowerKeyword) {
+        assert lowerKeyword.length() >= GRAM_LENGTH : "Keyword should have at least one trigram";
+        int gramCount = lowerKeyword.length() - GRAM_LENGTH + 1;
+        PostingList[] lists = new PostingList[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            lists[i] = postings.get(toGram(lowerKeyword, i));
+            if (lists[i] == null) {
+                return new long[0];
+            }
+        }
+        // Walk the shortest list and probe the others, which are sorted, by binary search
+        Arrays.sort(lists, (first, second) -> Integer.compare(first.size, second.size));
+        long[] candidates = new long[lists[0].size];
+        int candidateCount = 0;
+        for (int i = 0; i < lists[0].size; i++) {
+            long id = lists[0].ids[i];
+            boolean isInAll = true;
+            for (int j = 1; j < lists.length && isInAll; j++) {
+                isInAll = Arrays.binarySearch(lists[j].ids, 0, lists[j].size, id) >= 0;
+            }
+            if (isInAll) {
+                candidates[candidateCount++] = id;
+            }
+        }
+        return Arrays.copyOf(candidates, candidateCount);
+    }
+
+    private static long toGram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * A growable sorted array of task IDs.
+     */
+    private static class PostingList {
+        private long[] ids = new long[INITIAL_POSTING_CAPACITY];
+        private int size;
+
+        private void add(long id) {
+            // A task that repeats a trigram is only listed once
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
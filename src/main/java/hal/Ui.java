@@ -1,9 +1,12 @@
 package hal;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 
 /**
  * Handles all user interface interactions.
+ * Long lists can be shown a page at a time, and lists shown in the console are written line by line
+ * instead of being built into one string first.
  */
 public class Ui {
     public static final String LOGO = """
@@ -22,11 +25,37 @@ public class Ui {
                 """;
     public static final String DIVIDER = "____________________________________________________________\n";
 
+    private final PrintStream out;
+
+    /**
+     * Constructs a Ui that displays messages on standard output.
+     */
+    public Ui() {
+        this(System.out);
+    }
+
+    /**
+     * Constructs a Ui that displays messages on the given stream.
+     *
+     * @param out The stream to display messages on.
+     */
+    public Ui(PrintStream out) {
+        assert out != null : "Output stream should not be null";
+        this.out = out;
+    }
+
+    /**
+     * Sends any displayed messages still held by a buffered stream to the console.
+     */
+    public void flush() {
+        out.flush();
+    }
+
     /**
      * Displays the welcome message.
      */
     public void showWelcome() {
-        System.out.println(DIVIDER
+        out.println(DIVIDER
                 + "Hello! I'm Hal\nWhat can I do for you?\n"
                 + DIVIDER);
     }
@@ -46,14 +75,14 @@ public class Ui {
      * @param input The string to display.
      */
     public void echo(String input) {
-        System.out.println(Ui.DIVIDER + input + "\n" + Ui.DIVIDER);
+        out.println(Ui.DIVIDER + input + "\n" + Ui.DIVIDER);
     }
 
     /**
      * Displays the goodbye message.
      */
     public void goodbye() {
-        System.out.println(Ui.DIVIDER + "Bye. Hope to see you again soon!\n" + Ui.DIVIDER);
+        out.println(Ui.DIVIDER + "Bye. Hope to see you again soon!\n" + Ui.DIVIDER);
     }
 
     /**
@@ -72,7 +101,7 @@ public class Ui {
      * @param totalTasks The total number of tasks.
      */
     public void showTaskAdded(Task task, int totalTasks) {
-        System.out.println(DIVIDER + "Got it. I've added this task:\n  " + task 
+        out.println(DIVIDER + "Got it. I've added this task:\n  " + task 
                 + "\nNow you have " + totalTasks + " tasks in the list.\n" + DIVIDER);
     }
 
@@ -94,11 +123,31 @@ public class Ui {
      * @param tasks The task list to display.
      */
     public void showList(TaskList tasks) {
-        System.out.print(DIVIDER + "Here are the tasks in your list:\n");
-        for (int i = 0; i < tasks.getTaskCount(); i++) {
-            System.out.println((i + 1) + ". " + tasks.getTask(i));
+        out.print(DIVIDER);
+        out.print("Here are the tasks in your list:\n");
+        printTasks(tasks, 0, tasks.getTaskCount());
+        out.println(DIVIDER);
+    }
+
+    /**
+     * Displays one page of the list of tasks, numbered by their positions in the whole list.
+     *
+     * @param tasks The task list to display.
+     * @param page The page to display, starting from 1, which must exist.
+     * @param pageSize The number of tasks on each page.
+     */
+    public void showListPage(TaskList tasks, int page, int pageSize) {
+        int count = tasks.getTaskCount();
+        if (count == 0) {
+            showList(tasks);
+            return;
         }
-        System.out.println(DIVIDER);
+        int start = getPageStart(page, pageSize, count);
+        int end = getPageEnd(page, pageSize, count);
+        out.print(DIVIDER);
+        out.println(formatPageHeader("Here are tasks ", " in your list", start, end, count, page, pageSize));
+        printTasks(tasks, start, end);
+        out.println(DIVIDER);
     }
 
     /**
@@ -108,11 +157,30 @@ public class Ui {
      * @return The formatted task list string.
      */
     public String getList(TaskList tasks) {
-        StringBuilder sb = new StringBuilder("Here are the tasks in your list:\n");
-        for (int i = 0; i < tasks.getTaskCount(); i++) {
-            sb.append((i + 1)).append(". ").append(tasks.getTask(i)).append("\n");
+        StringBuilder sb = new StringBuilder("Here are the tasks in your list:");
+        appendTasks(sb, tasks, 0, tasks.getTaskCount());
+        return sb.toString();
+    }
+
+    /**
+     * Returns one page of the list of tasks as a formatted string, numbered by their positions in the whole list.
+     *
+     * @param tasks The task list to format.
+     * @param page The page to format, starting from 1, which must exist.
+     * @param pageSize The number of tasks on each page.
+     * @return The formatted page of the task list.
+     */
+    public String getListPage(TaskList tasks, int page, int pageSize) {
+        int count = tasks.getTaskCount();
+        if (count == 0) {
+            return getList(tasks);
         }
-        return sb.toString().trim();
+        int start = getPageStart(page, pageSize, count);
+        int end = getPageEnd(page, pageSize, count);
+        StringBuilder sb = new StringBuilder(
+                formatPageHeader("Here are tasks ", " in your list", start, end, count, page, pageSize));
+        appendTasks(sb, tasks, start, end);
+        return sb.toString();
     }
 
     /**
@@ -121,7 +189,7 @@ public class Ui {
      * @param task The task that was marked.
      */
     public void showTaskMarked(Task task) {
-        System.out.println(DIVIDER + "Nice! I've marked this task as done:\n  " + task + "\n" + DIVIDER);
+        out.println(DIVIDER + "Nice! I've marked this task as done:\n  " + task + "\n" + DIVIDER);
     }
 
     /**
@@ -140,7 +208,7 @@ public class Ui {
      * @param task The task that was unmarked.
      */
     public void showTaskUnmarked(Task task) {
-        System.out.println(DIVIDER + "OK, I've marked this task as not done yet:\n  " + task + "\n" + DIVIDER);
+        out.println(DIVIDER + "OK, I've marked this task as not done yet:\n  " + task + "\n" + DIVIDER);
     }
 
     /**
@@ -160,7 +228,7 @@ public class Ui {
      * @param totalTasks The total number of remaining tasks.
      */
     public void showTaskDeleted(Task task, int totalTasks) {
-        System.out.println(DIVIDER + "Noted. I've removed this task:\n  " + task
+        out.println(DIVIDER + "Noted. I've removed this task:\n  " + task
                 + "\nNow you have " + totalTasks + " tasks in the list.\n" + DIVIDER);
     }
 
@@ -182,7 +250,7 @@ public class Ui {
      * @param errorMessage The error message to display.
      */
     public void showError(String errorMessage) {
-        System.out.println(DIVIDER + errorMessage + "\n" + DIVIDER);
+        out.println(DIVIDER + errorMessage + "\n" + DIVIDER);
     }
 
     /**
@@ -191,7 +259,7 @@ public class Ui {
      * @param task The duplicate task.
      */
     public void showDuplicateWarning(Task task) {
-        System.out.println(DIVIDER + "This task already exists in your list:\n  " 
+        out.println(DIVIDER + "This task already exists in your list:\n  " 
                 + task + "\nTask not added to avoid duplication.\n" + DIVIDER);
     }
 
@@ -217,7 +285,7 @@ public class Ui {
             sb.append(error).append("\n");
         }
         sb.append(DIVIDER);
-        System.out.print(sb.toString());
+        out.print(sb.toString());
     }
 
     /**
@@ -227,16 +295,35 @@ public class Ui {
      */
     public void showFoundTasks(ArrayList<Task> tasks) {
         if (tasks.isEmpty()) {
-            System.out.println(DIVIDER + "No matching tasks found.\n" + DIVIDER);
+            out.println(DIVIDER + "No matching tasks found.\n" + DIVIDER);
         } else {
-            System.out.print(DIVIDER + "Here are the matching tasks in your list:\n");
-            for (int i = 0; i < tasks.size(); i++) {
-                System.out.println((i + 1) + ". " + tasks.get(i));
-            }
-            System.out.println(DIVIDER);
+            out.print(DIVIDER);
+            out.print("Here are the matching tasks in your list:\n");
+            printFoundTasks(tasks, 0, tasks.size());
+            out.println(DIVIDER);
         }
     }
 
+    /**
+     * Displays one page of the tasks found by search, numbered by their positions in the results.
+     *
+     * @param tasks The list of found tasks.
+     * @param page The page to display, starting from 1, which must exist.
+     * @param pageSize The number of tasks on each page.
+     */
+    public void showFoundTasks(ArrayList<Task> tasks, int page, int pageSize) {
+        if (tasks.isEmpty()) {
+            showFoundTasks(tasks);
+            return;
+        }
+        int start = getPageStart(page, pageSize, tasks.size());
+        int end = getPageEnd(page, pageSize, tasks.size());
+        out.print(DIVIDER);
+        out.println(formatPageHeader("Here are matching tasks ", "", start, end, tasks.size(), page, pageSize));
+        printFoundTasks(tasks, start, end);
+        out.println(DIVIDER);
+    }
+
     /**
      * Returns the list of tasks found by search as a formatted string.
      *
@@ -247,9 +334,133 @@ public class Ui {
         if (tasks.isEmpty()) {
             return "No matching tasks found.";
         } else {
-            StringBuilder sb = new StringBuilder("Here are the matching tasks in your list:\n");
+            StringBuilder sb = new StringBuilder("Here are the matching tasks in your list:");
+            appendFoundTasks(sb, tasks, 0, tasks.size());
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Returns one page of the tasks found by search as a formatted string, numbered by their positions in the results.
+     *
+     * @param tasks The list of found tasks.
+     * @param page The page to format, starting from 1, which must exist.
+     * @param pageSize The number of tasks on each page.
+     * @return The formatted page of found tasks.
+     */
+    public String getFoundTasks(ArrayList<Task> tasks, int page, int pageSize) {
+        if (tasks.isEmpty()) {
+            return getFoundTasks(tasks);
+        }
+        int start = getPageStart(page, pageSize, tasks.size());
+        int end = getPageEnd(page, pageSize, tasks.size());
+        StringBuilder sb = new StringBuilder(
+                formatPageHeader("Here are matching tasks ", "", start, end, tasks.size(), page, pageSize));
+        appendFoundTasks(sb, tasks, start, end);
+        return sb.toString();
+    }
+
+    /**
+     * Displays a warning that an added event overlaps other events.
+     *
+     * @param overlappingEvents The events that the added event overlaps.
+     */
+    public void showOverlapWarning(ArrayList<Task> overlappingEvents) {
+        out.println(DIVIDER + getOverlapWarning(overlappingEvents) + "\n" + DIVIDER);
+    }
+
+    /**
+     * Returns a warning that an added event overlaps other events.
+     *
+     * @param overlappingEvents The events that the added event overlaps.
+     * @return The overlap warning message.
+     */
+    public String getOverlapWarning(ArrayList<Task> overlappingEvents) {
+        StringBuilder sb = new StringBuilder("Heads up! This event overlaps:");
+        for (Task event : overlappingEvents) {
+            sb.append("\n  ").append(event);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Displays every pair of overlapping events.
+     *
+     * @param conflicts The overlapping pairs of events.
+     */
+    public void showConflicts(ArrayList<Event[]> conflicts) {
+        out.println(DIVIDER + getConflicts(conflicts) + "\n" + DIVIDER);
+    }
+
+    /**
+     * Returns every pair of overlapping events as a formatted string.
+     *
+     * @param conflicts The overlapping pairs of events.
+     * @return The formatted conflicts string.
+     */
+    public String getConflicts(ArrayList<Event[]> conflicts) {
+        if (conflicts.isEmpty()) {
+            return "None of your events overlap.";
+        }
+        StringBuilder sb = new StringBuilder("Here are the events that overlap:");
+        for (int i = 0; i < conflicts.size(); i++) {
+            sb.append("\n").append(i + 1).append(". ").append(conflicts.get(i)[0])
+                    .append("\n   overlaps ").append(conflicts.get(i)[1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Displays a message confirming that the tasks were exported to the text data file.
+     *
+     * @param taskCount The number of tasks exported.
+     * @param filePath The path of the text data file.
+     */
+    public void showExported(int taskCount, String filePath) {
+        out.println(DIVIDER + getExported(taskCount, filePath) + "\n" + DIVIDER);
+    }
+
+    /**
+     * Returns a message confirming that the tasks were exported to the text data file.
+     *
+     * @param taskCount The number of tasks exported.
+     * @param filePath The path of the text data file.
+     * @return The confirmation message.
+     */
+    public String getExported(int taskCount, String filePath) {
+        return "Got it. I've exported your " + taskCount + " tasks to " + filePath + ".";
+    }
+
+    /**
+     * Displays the tasks due in a period, in order of due time.
+     *
+     * @param tasks The tasks due in the period.
+     */
+    public void showScheduledTasks(ArrayList<Task> tasks) {
+        if (tasks.isEmpty()) {
+            out.println(DIVIDER + "No tasks are due in that period.\n" + DIVIDER);
+        } else {
+            out.print(DIVIDER + "Here are the tasks due in that period:\n");
+            for (int i = 0; i < tasks.size(); i++) {
+                out.println((i + 1) + ". " + tasks.get(i) + formatId(tasks.get(i)));
+            }
+            out.println(DIVIDER);
+        }
+    }
+
+    /**
+     * Returns the tasks due in a period as a formatted string, in order of due time.
+     *
+     * @param tasks The tasks due in the period.
+     * @return The formatted scheduled tasks string.
+     */
+    public String getScheduledTasks(ArrayList<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return "No tasks are due in that period.";
+        } else {
+            StringBuilder sb = new StringBuilder("Here are the tasks due in that period:\n");
             for (int i = 0; i < tasks.size(); i++) {
-                sb.append((i + 1)).append(". ").append(tasks.get(i)).append("\n");
+                sb.append((i + 1)).append(". ").append(tasks.get(i)).append(formatId(tasks.get(i))).append("\n");
             }
             return sb.toString().trim();
         }
@@ -261,11 +472,11 @@ public class Ui {
      * @param tasks The tasks to display.
      */
     public void showTasks(Task... tasks) {
-        System.out.print(DIVIDER + "Tasks:\n");
+        out.print(DIVIDER + "Tasks:\n");
         for (int i = 0; i < tasks.length; i++) {
-            System.out.println((i + 1) + ". " + tasks[i]);
+            out.println((i + 1) + ". " + tasks[i]);
         }
-        System.out.println(DIVIDER);
+        out.println(DIVIDER);
     }
 
     /**
@@ -284,4 +495,72 @@ public class Ui {
         }
         return sb.toString().trim();
     }
+
+    /**
+     * Returns the number of pages needed to show the given number of items. An empty list still has one page.
+     *
+     * @param itemCount The number of items.
+     * @param pageSize The number of items on each page.
+     * @return The page count.
+     */
+    static int countPages(int itemCount, int pageSize) {
+        assert pageSize > 0 : "Page size should be positive";
+        return Math.max(1, (int) (((long) itemCount + pageSize - 1) / pageSize));
+    }
+
+    private static int getPageStart(int page, int pageSize, int itemCount) {
+        assert page >= 1 && page <= countPages(itemCount, pageSize) : "Page should exist";
+        return (int) Math.min((long) (page - 1) * pageSize, itemCount);
+    }
+
+    private static int getPageEnd(int page, int pageSize, int itemCount) {
+        return (int) Math.min((long) page * pageSize, itemCount);
+    }
+
+    private static String formatPageHeader(String prefix, String suffix, int start, int end, int itemCount,
+            int page, int pageSize) {
+        return prefix + (start + 1) + "-" + end + " of " + itemCount + suffix
+                + " (page " + page + " of " + countPages(itemCount, pageSize) + "):";
+    }
+
+    // Writes each line straight to the stream, so showing a long list does not build it in memory first
+    private void printTasks(TaskList tasks, int start, int end) {
+        for (int i = start; i < end; i++) {
+            Task task = tasks.getTask(i);
+            out.print(i + 1);
+            out.print(". ");
+            out.print(task);
+            out.println(formatId(task));
+        }
+    }
+
+    private void printFoundTasks(ArrayList<Task> tasks, int start, int end) {
+        for (int i = start; i < end; i++) {
+            Task task = tasks.get(i);
+            out.print(i + 1);
+            out.print(". ");
+            out.print(task);
+            out.println(formatId(task));
+        }
+    }
+
+    private static void appendTasks(StringBuilder sb, TaskList tasks, int start, int end) {
+        for (int i = start; i < end; i++) {
+            Task task = tasks.getTask(i);
+            sb.append('\n').append(i + 1).append(". ").append(task).append(formatId(task));
+        }
+    }
+
+    private static void appendFoundTasks(StringBuilder sb, ArrayList<Task> tasks, int start, int end) {
+        for (int i = start; i < end; i++) {
+            Task task = tasks.get(i);
+            sb.append('\n').append(i + 1).append(". ").append(task).append(formatId(task));
+        }
+    }
+
+    // Positions change as tasks are deleted and search results are numbered by result, so every line
+    // also shows the ID that commands can refer to
+    private static String formatId(Task task) {
+        return " (#" + task.getId() + ")";
+    }
 }
@@ -0,0 +1,211 @@
+package hal;
+
+/**
+ * Writes task changes to storage on a single background thread.
+ * Changes submitted in quick succession are merged into one write: a newer snapshot replaces an older one,
+ * and journal records are appended together. A batch is written once the oldest change in it has waited
+ * for the maximum delay, once it holds the maximum number of changes, or when {@link #flush()} is called.
+ */
+public class WriteBehindFlusher {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final Storage storage;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+    private final Thread thread;
+
+    private Task[] pendingSnapshot;
+    private StringBuilder pendingRecords;
+    private int pendingRecordCount;
+    private int pendingChangeCount;
+    private long firstPendingNanos;
+    private long submittedCount;
+    private long writtenCount;
+    private boolean isFlushRequested;
+    private boolean isClosed;
+    private HalException failure;
+
+    /**
+     * Constructs a WriteBehindFlusher and starts its thread.
+     *
+     * @param storage The storage that performs the actual writes.
+     * @param maxDelayMillis The longest time in milliseconds a change may wait before it is written.
+     * @param maxBatchSize The largest number of changes merged into one write.
+     */
+    public WriteBehindFlusher(Storage storage, long maxDelayMillis, int maxBatchSize) {
+        assert storage != null : "Storage should not be null";
+        assert maxDelayMillis >= 0 && maxBatchSize > 0 : "Flush limits should be positive";
+        this.storage = storage;
+        this.maxDelayNanos = maxDelayMillis * NANOS_PER_MILLI;
+        this.maxBatchSize = maxBatchSize;
+        this.pendingRecords = new StringBuilder();
+        this.thread = new Thread(this::runFlushLoop, "hal-write-behind");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues a full snapshot of the tasks, replacing any snapshot or records that are still waiting.
+     *
+     * @param tasks The tasks to write.
+     * @throws HalException If an earlier write failed.
+     */
+    public synchronized void submitSnapshot(Task[] tasks) throws HalException {
+        assert tasks != null : "Snapshot should not be null";
+        beginSubmit();
+        pendingSnapshot = tasks;
+        pendingRecords = new StringBuilder();
+        pendingRecordCount = 0;
+        endSubmit();
+    }
+
+    /**
+     * Queues journal records to be appended after any snapshot that is waiting.
+     *
+     * @param records The newline-terminated records.
+     * @param count The number of records.
+     * @throws HalException If an earlier write failed.
+     */
+    public synchronized void submitRecords(String records, int count) throws HalException {
+        assert records != null && count > 0 : "Records should not be empty";
+        beginSubmit();
+        pendingRecords.append(records);
+        pendingRecordCount += count;
+        endSubmit();
+    }
+
+    private void beginSubmit() throws HalException {
+        throwFailure();
+        if (isClosed) {
+            throw new HalException("Error: Storage has already been closed!");
+        }
+        if (pendingChangeCount == 0) {
+            firstPendingNanos = System.nanoTime();
+        }
+    }
+
+    private void endSubmit() {
+        pendingChangeCount++;
+        submittedCount++;
+        notifyAll();
+    }
+
+    /**
+     * Waits until every change submitted so far has been written.
+     *
+     * @throws HalException If a write failed.
+     */
+    public synchronized void flush() throws HalException {
+        long target = submittedCount;
+        isFlushRequested = true;
+        notifyAll();
+        try {
+            while (writtenCount < target && thread.isAlive()) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HalException("Error: Interrupted while saving data!");
+        } finally {
+            isFlushRequested = false;
+        }
+        throwFailure();
+        if (writtenCount < target) {
+            throw new HalException("Error: Could not save data to file!");
+        }
+    }
+
+    /**
+     * Writes every pending change and stops the flusher thread.
+     *
+     * @throws HalException If a write failed.
+     */
+    public void close() throws HalException {
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+        }
+        flush();
+        synchronized (this) {
+            isClosed = true;
+            notifyAll();
+        }
+    }
+
+    private void throwFailure() throws HalException {
+        if (failure != null) {
+            HalException error = failure;
+            failure = null;
+            throw error;
+        }
+    }
+
+    private void runFlushLoop() {
+        try {
+            writeBatches();
+        } finally {
+            // Wakes any flush waiting on a thread that stopped without writing its batch
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    private void writeBatches() {
+        while (true) {
+            Task[] snapshot;
+            String records;
+            int recordCount;
+            long batchEnd;
+            synchronized (this) {
+                try {
+                    waitForBatch();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (pendingChangeCount == 0) {
+                    return;
+                }
+                snapshot = pendingSnapshot;
+                records = pendingRecords.toString();
+                recordCount = pendingRecordCount;
+                batchEnd = submittedCount;
+                pendingSnapshot = null;
+                pendingRecords = new StringBuilder();
+                pendingRecordCount = 0;
+                pendingChangeCount = 0;
+            }
+            HalException error = null;
+            try {
+                storage.writeBatch(snapshot, records, recordCount);
+            } catch (HalException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                // Any other failure is reported the same way so that the thread keeps running
+                error = new HalException("Error: Could not save data to file!");
+            }
+            synchronized (this) {
+                if (error != null) {
+                    failure = error;
+                }
+                writtenCount = batchEnd;
+                notifyAll();
+            }
+        }
+    }
+
+    // Must hold the lock. Returns with changes to write, or with none once the flusher is closed.
+    private void waitForBatch() throws InterruptedException {
+        while (pendingChangeCount == 0 && !isClosed) {
+            wait();
+        }
+        while (pendingChangeCount > 0 && pendingChangeCount < maxBatchSize && !isFlushRequested && !isClosed) {
+            long remainingNanos = firstPendingNanos + maxDelayNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return;
+            }
+            wait(remainingNanos / NANOS_PER_MILLI, (int) (remainingNanos % NANOS_PER_MILLI));
+        }
+    }
+}
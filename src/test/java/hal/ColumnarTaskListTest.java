@@ -0,0 +1,116 @@
+package hal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ColumnarTaskListTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private static Task createTask(long seed) {
+        Random random = new Random(seed);
+        String description = (random.nextBoolean() ? "Read " : "BUY ") + "item " + random.nextInt(500)
+                + (random.nextInt(10) == 0 ? " caf\u00e9" : "");
+        switch (random.nextInt(3)) {
+        case 0:
+            return new Todo(description);
+        case 1:
+            return new Deadline(description, BASE.plusMinutes(random.nextInt(10_000)));
+        default:
+            LocalDateTime from = BASE.plusMinutes(random.nextInt(10_000));
+            return new Event(description, from, from.plusMinutes(random.nextInt(120)));
+        }
+    }
+
+    private static void assertSameTasks(ArrayList<? extends Task> expected, ArrayList<? extends Task> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+        }
+    }
+
+    @Test
+    public void randomChanges_matchTaskList() {
+        Random random = new Random(3);
+        TaskList expected = new TaskList();
+        ColumnarTaskList actual = new ColumnarTaskList();
+        for (int i = 0; i < 3000; i++) {
+            int action = random.nextInt(10);
+            if (action < 6 || expected.getTaskCount() == 0) {
+                long seed = random.nextLong();
+                assertEquals(expected.addTask(createTask(seed)), actual.addTask(createTask(seed)));
+            } else if (action < 8) {
+                int index = random.nextInt(expected.getTaskCount());
+                expected.markTask(index);
+                actual.markTask(index);
+            } else {
+                int index = random.nextInt(expected.getTaskCount());
+                assertEquals(expected.deleteTask(index).toString(), actual.deleteTask(index).toString());
+            }
+        }
+
+        assertEquals(expected.getTaskCount(), actual.getTaskCount());
+        for (int i = 0; i < expected.getTaskCount(); i++) {
+            Task task = expected.getTask(i);
+            assertEquals(task.toFileFormat(), actual.getTask(i).toFileFormat());
+            assertEquals(i, actual.getIndexById(task.getId()));
+            assertTrue(actual.isDuplicate(task));
+            assertEquals(expected.findDuplicateIndices(task), actual.findDuplicateIndices(task));
+        }
+        for (String query : new String[] {"item 1", "read", "\u00c9", "buy /and 4", "m 7 /or caf"}) {
+            assertSameTasks(expected.searchTasks(query), actual.searchTasks(query));
+        }
+        assertSameTasks(expected.findTasksDue(Long.MIN_VALUE, Long.MAX_VALUE),
+                actual.findTasksDue(Long.MIN_VALUE, Long.MAX_VALUE));
+        ArrayList<Event[]> expectedConflicts = expected.findConflicts();
+        ArrayList<Event[]> actualConflicts = actual.findConflicts();
+        assertEquals(expectedConflicts.size(), actualConflicts.size());
+        for (int i = 0; i < expectedConflicts.size(); i++) {
+            assertEquals(expectedConflicts.get(i)[0].getId(), actualConflicts.get(i)[0].getId());
+            assertEquals(expectedConflicts.get(i)[1].getId(), actualConflicts.get(i)[1].getId());
+        }
+        assertEquals(expected.getAllTasks(), actual.getAllTasks());
+    }
+
+    @Test
+    public void markTask_view_reflectsDoneFlag() {
+        ColumnarTaskList taskList = new ColumnarTaskList();
+        taskList.addTask(new Todo("Read book"));
+        taskList.addTask(new Deadline("Submit report", "25/01/2026 2359"));
+        taskList.markTask(1);
+
+        assertFalse(taskList.getTask(0).isDone());
+        assertTrue(taskList.getTask(1).isDone());
+        assertEquals("[D][X] Submit report (by: jan 25 2026, 11pm)", taskList.getTask(1).toString());
+        assertFalse(taskList.addTask(new Todo("READ BOOK")));
+        taskList.deleteTask(0);
+        assertTrue(taskList.getTask(0).isDone());
+        assertNull(taskList.getTask(1));
+    }
+
+    @Test
+    public void deleteTask_offHeapAfterCompaction_keepsDescriptions() {
+        TaskList expected = new TaskList();
+        ColumnarTaskList actual = new ColumnarTaskList(true);
+        for (int i = 0; i < 40_000; i++) {
+            String description = "Task " + i + " with a description long enough to fill the pool";
+            expected.addTask(new Todo(description));
+            actual.addTask(new Todo(description));
+        }
+        for (int i = 0; i < 30_000; i++) {
+            int index = (i * 31) % expected.getTaskCount();
+            assertEquals(expected.deleteTask(index), actual.deleteTask(index));
+        }
+
+        assertEquals(expected.getAllTasks(), actual.getAllTasks());
+        assertSameTasks(expected.findTasks("task 39"), actual.findTasks("task 39"));
+    }
+}
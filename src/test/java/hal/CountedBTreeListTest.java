@@ -0,0 +1,98 @@
+package hal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CountedBTreeListTest {
+    @Test
+    public void addAndRemove_randomPositions_matchesArrayList() {
+        Random random = new Random(7);
+        ArrayList<Integer> expected = new ArrayList<>();
+        CountedBTreeList<Integer> list = new CountedBTreeList<>();
+        for (int i = 0; i < 20_000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                int index = random.nextBoolean() ? expected.size() : random.nextInt(expected.size() + 1);
+                expected.add(index, i);
+                list.add(index, i);
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), list.remove(index));
+            }
+        }
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), list.get(i));
+        }
+        assertEquals(expected, list);
+
+        while (!expected.isEmpty()) {
+            assertEquals(expected.remove(0), list.remove(0));
+        }
+        assertTrue(list.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(0));
+    }
+
+    @Test
+    public void randomOperations_manyRounds_matchArrayList() {
+        Random random = new Random(42);
+        for (int round = 0; round < 300; round++) {
+            ArrayList<Integer> expected = new ArrayList<>();
+            int initialSize = random.nextInt(300);
+            for (int i = 0; i < initialSize; i++) {
+                expected.add(-i);
+            }
+            CountedBTreeList<Integer> list = round % 2 == 0 ? new CountedBTreeList<>(expected)
+                    : new CountedBTreeList<>();
+            if (round % 2 == 1) {
+                list.addAll(expected);
+            }
+            for (int i = 0; i < 5000; i++) {
+                // Grow for the first half of the round, then shrink so that nodes are merged
+                int operation = random.nextInt(6);
+                boolean isGrowing = i < 2500;
+                if (expected.isEmpty() || (isGrowing ? operation < 3 : operation == 0)) {
+                    int index = random.nextBoolean() ? expected.size() : random.nextInt(expected.size() + 1);
+                    expected.add(index, i);
+                    list.add(index, i);
+                } else if (isGrowing ? operation == 3 : operation < 4) {
+                    int index = random.nextInt(expected.size());
+                    assertEquals(expected.remove(index), list.remove(index));
+                } else if (operation == 4) {
+                    int index = random.nextInt(expected.size());
+                    assertEquals(expected.get(index), list.get(index));
+                    assertEquals(expected.set(index, -i), list.set(index, -i));
+                } else if (random.nextInt(50) == 0) {
+                    assertEquals(expected, list);
+                }
+                assertEquals(expected.size(), list.size());
+            }
+            assertEquals(expected, list);
+        }
+    }
+
+    @Test
+    public void constructor_fromCollection_keepsOrderAndAcceptsChanges() {
+        ArrayList<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            expected.add(i);
+        }
+        CountedBTreeList<Integer> list = new CountedBTreeList<>(expected);
+        assertEquals(expected, list);
+
+        for (int i = 0; i < 5_000; i++) {
+            expected.remove(i);
+            list.remove(i);
+        }
+        expected.add(2_500, -1);
+        list.add(2_500, -1);
+        assertEquals(expected.set(0, -2), list.set(0, -2));
+        assertEquals(expected, list);
+        assertEquals(expected.indexOf(-1), list.indexOf(-1));
+    }
+}
@@ -0,0 +1,44 @@
+package hal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DateTimeCodecTest {
+    private static final DateTimeFormatter INPUT_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HHmm");
+
+    private static long parseWithFormatter(String text) {
+        try {
+            return DateTimeCodec.toEpochMinute(LocalDateTime.parse(text, INPUT_FORMATTER));
+        } catch (DateTimeParseException e) {
+            return DateTimeCodec.INVALID;
+        }
+    }
+
+    @Test
+    public void parseInputMinute_edgeCases_matchesFormatter() {
+        String[] inputs = {"25/01/2026 2359", "29/02/2024 1200", "29/02/2025 1200", "31/04/2026 1200",
+            "31/12/2026 2400", "25/01/2026 2401", "25/01/2026 2360", "32/01/2026 1200", "00/01/2026 1200",
+            "25/13/2026 1200", "25/01/0000 1200", "01/01/0001 0000", "31/12/9999 2400", "25/01/20260 2359",
+            "25/01/+2026 2359", "25/01/2026  2359", " 25/01/2026 2359", "25/01/2026", "25-01-2026 2359",
+            "\u0661\u0662/01/2026 1200", ""};
+        for (String input : inputs) {
+            assertEquals(parseWithFormatter(input), DateTimeCodec.parseInputMinute(input), input);
+        }
+    }
+
+    @Test
+    public void parseInputMinute_randomFields_matchesFormatter() {
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            String input = String.format("%02d/%02d/%04d %02d%02d", random.nextInt(34), random.nextInt(14),
+                    random.nextInt(10_000), random.nextInt(26), random.nextInt(62));
+            assertEquals(parseWithFormatter(input), DateTimeCodec.parseInputMinute(input), input);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -94,4 +95,14 @@ public class DeadlineTest {
         deadline.markAsDone();
         assertTrue(deadline.isDone());
     }
+
+    @Test
+    public void equals_sameMinuteFromStringAndDateTime_equalWithSameHash() {
+        Deadline parsed = new Deadline("Submit assignment", "25/01/2026 2359");
+        Deadline built = new Deadline("submit ASSIGNMENT", LocalDateTime.of(2026, 1, 25, 23, 59));
+        assertEquals(parsed, built);
+        assertEquals(parsed.hashCode(), built.hashCode());
+        assertNotEquals(parsed, new Deadline("Submit assignment", "25/01/2026 2358"));
+        assertEquals(LocalDateTime.of(2026, 1, 25, 23, 59), built.getBy());
+    }
 }
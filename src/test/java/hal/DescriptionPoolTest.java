@@ -0,0 +1,51 @@
+package hal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class DescriptionPoolTest {
+    @Test
+    public void intern_equalDescriptions_shareCopies() {
+        DescriptionPool pool = new DescriptionPool();
+        Task first = new Todo("Submit Report");
+        Task second = new Todo(new String("Submit Report"));
+        Task other = new Todo("submit report");
+        pool.intern(first);
+        pool.intern(second);
+        pool.intern(other);
+
+        assertEquals(2, pool.size());
+        assertSame(first.getDescription(), second.getDescription());
+        assertSame(first.getLowerDescription(), second.getLowerDescription());
+        assertEquals("submit report", first.getLowerDescription());
+        assertEquals("submit report", other.getDescription());
+    }
+
+    @Test
+    public void release_lastTask_dropsDescription() {
+        DescriptionPool pool = new DescriptionPool();
+        Task first = new Todo("Water plants");
+        Task second = new Todo("Water plants");
+        pool.intern(first);
+        pool.intern(second);
+
+        pool.release(first);
+        assertEquals(1, pool.size());
+        pool.release(second);
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void intern_loadedTask_cutsDescriptionFromLine() {
+        DescriptionPool pool = new DescriptionPool();
+        Task loaded = new TaskLineCodec().decode("T | 1 | Water plants");
+        Task created = new Todo("Water plants");
+        pool.intern(created);
+        pool.intern(loaded);
+
+        assertSame(created.getDescription(), loaded.getDescription());
+        assertEquals("[T][X] Water plants", loaded.toString());
+    }
+}
@@ -0,0 +1,86 @@
+package hal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventIntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private static Event createEvent(String description, int fromMinutes, int toMinutes, long id) {
+        Event event = new Event(description, BASE.plusMinutes(fromMinutes), BASE.plusMinutes(toMinutes));
+        event.setId(id);
+        return event;
+    }
+
+    private static boolean overlaps(Event first, Event second) {
+        long firstEnd = Math.max(first.getToMinute(), first.getFromMinute() + 1);
+        long secondEnd = Math.max(second.getToMinute(), second.getFromMinute() + 1);
+        return first.getFromMinute() < secondEnd && second.getFromMinute() < firstEnd;
+    }
+
+    @Test
+    public void findOverlapping_adjacentAndNestedEvents_returnsOnlyOverlaps() {
+        EventIntervalTree tree = new EventIntervalTree();
+        Event morning = createEvent("Morning", 60, 120, 0);
+        Event afternoon = createEvent("Afternoon", 120, 180, 1);
+        Event allDay = createEvent("All day", 0, 1440, 2);
+        Event instant = createEvent("Instant", 150, 150, 3);
+        tree.add(morning);
+        tree.add(afternoon);
+        tree.add(allDay);
+        tree.add(instant);
+
+        ArrayList<Task> overlappingMorning = tree.findOverlapping(morning);
+        assertEquals(1, overlappingMorning.size());
+        assertSame(allDay, overlappingMorning.get(0));
+        ArrayList<Task> overlappingInstant = tree.findOverlapping(instant);
+        assertEquals(2, overlappingInstant.size());
+        assertSame(allDay, overlappingInstant.get(0));
+        assertSame(afternoon, overlappingInstant.get(1));
+
+        tree.remove(allDay);
+        assertEquals(3, tree.size());
+        assertTrue(tree.findOverlapping(morning).isEmpty());
+        assertEquals(1, tree.findConflicts().size());
+    }
+
+    @Test
+    public void findConflicts_randomEvents_matchesPairwiseScan() {
+        Random random = new Random(42);
+        EventIntervalTree tree = new EventIntervalTree();
+        ArrayList<Event> events = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int from = random.nextInt(100_000);
+            Event event = createEvent("Event " + i, from, from + random.nextInt(120), i);
+            events.add(event);
+            tree.add(event);
+        }
+        for (int i = 0; i < 500; i++) {
+            tree.remove(events.remove(random.nextInt(events.size())));
+        }
+
+        int expectedConflicts = 0;
+        for (Event event : events) {
+            int expectedOverlaps = 0;
+            for (Event other : events) {
+                if (other != event && overlaps(event, other)) {
+                    expectedOverlaps++;
+                }
+            }
+            expectedConflicts += expectedOverlaps;
+            assertEquals(expectedOverlaps, tree.findOverlapping(event).size());
+        }
+        ArrayList<Event[]> conflicts = tree.findConflicts();
+        assertEquals(expectedConflicts / 2, conflicts.size());
+        for (Event[] pair : conflicts) {
+            assertTrue(overlaps(pair[0], pair[1]));
+        }
+    }
+}
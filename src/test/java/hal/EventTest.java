@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -111,4 +112,14 @@ public class EventTest {
         event.markAsDone();
         assertTrue(event.isDone());
     }
+
+    @Test
+    public void equals_swappedTimes_notEqual() {
+        Event event = new Event("Workshop", "25/01/2026 1000", "25/01/2026 1200");
+        Event same = new Event("Workshop", LocalDateTime.of(2026, 1, 25, 10, 0), LocalDateTime.of(2026, 1, 25, 12, 0));
+        assertEquals(event, same);
+        assertEquals(event.hashCode(), same.hashCode());
+        assertNotEquals(event, new Event("Workshop", "25/01/2026 1200", "25/01/2026 1000"));
+        assertNotEquals(event.hashCode(), new Event("Workshop", "25/01/2026 1200", "25/01/2026 1000").hashCode());
+    }
 }
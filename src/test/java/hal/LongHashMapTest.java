@@ -0,0 +1,42 @@
+package hal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class LongHashMapTest {
+    @Test
+    public void putGetRemove_randomOperations_matchesHashMap() {
+        LongHashMap<String> map = new LongHashMap<>();
+        HashMap<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50000; i++) {
+            long key = random.nextInt(2000) - 1000L;
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = -1000; key < 1000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void clear_nonEmptyMap_removesAllKeys() {
+        LongHashMap<String> map = new LongHashMap<>();
+        map.put(Long.MIN_VALUE, "min");
+        map.put(0, "zero");
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertNull(map.get(0));
+        assertNull(map.get(Long.MIN_VALUE));
+    }
+}
@@ -0,0 +1,71 @@
+package hal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParserTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void parsePage_pageAndSize_returnsBoth() {
+        assertArrayEquals(new int[] {2, 10}, Parser.parsePage("2 10", 15));
+        assertArrayEquals(new int[] {1, Parser.DEFAULT_PAGE_SIZE}, Parser.parsePage("1", 0));
+    }
+
+    @Test
+    public void parsePage_invalidArguments_throwsException() {
+        assertThrows(HalException.class, () -> Parser.parsePage("3 10", 15));
+        assertThrows(HalException.class, () -> Parser.parsePage("0", 15));
+        assertThrows(HalException.class, () -> Parser.parsePage("1 -5", 15));
+        assertThrows(HalException.class, () -> Parser.parsePage("two", 15));
+        assertThrows(HalException.class, () -> Parser.parsePage("1 2 3", 15));
+        assertThrows(HalException.class, () -> Parser.parsePage("", 15));
+    }
+
+    @Test
+    public void splitPageOption_queryWithAndWithoutOption_splitsAtOption() {
+        assertArrayEquals(new String[] {"book /or pen", "2 5"}, Parser.splitPageOption("book /or pen --page 2 5"));
+        assertArrayEquals(new String[] {"book", ""}, Parser.splitPageOption("book --page"));
+        assertArrayEquals(new String[] {"book--page 2", null}, Parser.splitPageOption("book--page 2"));
+        assertArrayEquals(new String[] {"--pages", null}, Parser.splitPageOption("--pages"));
+    }
+
+    @Test
+    public void readCommand_bufferedReader_readsLinesUntilEnd() {
+        Parser parser = new Parser(new BufferedReader(new StringReader("list\nfind book --page 2\n")));
+        assertTrue(parser.hasPendingInput());
+        assertEquals("list", parser.readCommand());
+        assertEquals("find book --page 2", parser.readCommand());
+        assertThrows(NoSuchElementException.class, parser::readCommand);
+        parser.close();
+    }
+
+    @Test
+    public void processCommand_datedTaskSaveFails_reportsSaveError() {
+        // A directory cannot be written as a data file, so every save fails
+        Storage storage = new Storage(tempDir.toString());
+        Ui ui = new Ui(new PrintStream(new ByteArrayOutputStream()));
+        Parser parser = new Parser();
+        String[] commands = {"deadline Submit report /by 15/10/2019 1800",
+            "event Meeting /from 15/10/2019 1400 /to 15/10/2019 1600"};
+        for (String command : commands) {
+            HalException e = assertThrows(HalException.class,
+                    () -> parser.processCommand(command, new TaskList(), ui, storage));
+            assertFalse(e.getMessage().contains("Invalid date"));
+        }
+    }
+}
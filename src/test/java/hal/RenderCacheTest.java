@@ -0,0 +1,90 @@
+package hal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RenderCacheTest {
+    @Test
+    public void get_sameTaskTwice_reusesLine() {
+        RenderCache cache = new RenderCache(10);
+        Task task = new Deadline("Submit report", "25/01/2026 2359");
+        String line = cache.get(task);
+
+        assertEquals("[D][ ] Submit report (by: jan 25 2026, 11pm)", line);
+        assertSame(line, cache.get(task));
+    }
+
+    @Test
+    public void get_equalTaskWithOtherStatus_rendersItsOwnLine() {
+        RenderCache cache = new RenderCache(10);
+        Task task = new Todo("Read book");
+        Task doneTask = new Todo("Read book");
+        doneTask.markAsDone();
+
+        assertEquals("[T][ ] Read book", cache.get(task));
+        assertEquals("[T][X] Read book", cache.get(doneTask));
+    }
+
+    @Test
+    public void get_afterMarking_rendersNewStatus() {
+        RenderCache cache = new RenderCache(10);
+        Task task = new Event("Meeting", "25/01/2026 1000", "25/01/2026 1200");
+        cache.get(task);
+        task.markAsDone();
+
+        assertNull(task.getRenderedLine());
+        assertEquals("[E][X] Meeting (from: jan 25 2026, 10am to: jan 25 2026, 12pm)", cache.get(task));
+    }
+
+    @Test
+    public void get_moreTasksThanCapacity_keepsMostRecent() {
+        RenderCache cache = new RenderCache(3);
+        Task[] tasks = new Task[10];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new Todo("Task " + i);
+            cache.get(tasks[i]);
+        }
+
+        for (int i = 0; i < 7; i++) {
+            assertNull(tasks[i].getRenderedLine());
+        }
+        for (int i = 7; i < 10; i++) {
+            assertNotNull(tasks[i].getRenderedLine());
+        }
+        assertEquals("[T][ ] Task 0", cache.get(tasks[0]));
+        assertNull(tasks[7].getRenderedLine());
+    }
+
+    @Test
+    public void release_keptTask_dropsLineWithoutEvictingOthers() {
+        RenderCache cache = new RenderCache(2);
+        Task deletedTask = new Todo("Read book");
+        Task keptTask = new Todo("Return book");
+        cache.get(deletedTask);
+        cache.get(keptTask);
+        cache.release(deletedTask);
+
+        assertNull(deletedTask.getRenderedLine());
+        assertEquals("[T][ ] Read book", cache.get(deletedTask));
+        assertNull(deletedTask.getRenderedLine());
+        cache.get(new Todo("Buy pen"));
+        assertNotNull(keptTask.getRenderedLine());
+    }
+
+    @Test
+    public void get_view_rendersWithoutKeepingLine() {
+        RenderCache cache = new RenderCache(1);
+        Task keptTask = new Todo("Return book");
+        cache.get(keptTask);
+        Task view = new Todo("Read book");
+        view.disableRenderCache();
+
+        assertEquals("[T][ ] Read book", cache.get(view));
+        assertNull(view.getRenderedLine());
+        assertNotNull(keptTask.getRenderedLine());
+    }
+}
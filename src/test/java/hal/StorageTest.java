@@ -7,11 +7,15 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StorageTest {
@@ -183,4 +187,440 @@ public class StorageTest {
         ArrayList<Task> loadedTasks = storage.load();
         assertEquals(0, loadedTasks.size());
     }
+
+    @Test
+    public void saveChange_journalMode_replaysChangesOnLoad() {
+        Storage journalStorage = new Storage(testFilePath, StorageMode.JOURNAL);
+        TaskList taskList = new TaskList();
+        Task todo = new Todo("Buy milk");
+        Task deadline = new Deadline("Submit report", "25/01/2026 2359");
+        taskList.addTask(todo);
+        journalStorage.saveChange(taskList, TaskChange.ADDED, todo);
+        taskList.addTask(deadline);
+        journalStorage.saveChange(taskList, TaskChange.ADDED, deadline);
+        taskList.markTask(1);
+        journalStorage.saveChange(taskList, TaskChange.UPDATED, deadline);
+        taskList.deleteTask(0);
+        journalStorage.saveChange(taskList, TaskChange.DELETED, todo);
+
+        assertFalse(new File(testFilePath).exists());
+        ArrayList<Task> loadedTasks = new Storage(testFilePath, StorageMode.JOURNAL).load();
+
+        assertEquals(1, loadedTasks.size());
+        assertEquals("Submit report", loadedTasks.get(0).getDescription());
+        assertTrue(loadedTasks.get(0).isDone());
+    }
+
+    @Test
+    public void save_journalMode_foldsJournalIntoSnapshot() {
+        Storage journalStorage = new Storage(testFilePath, StorageMode.JOURNAL);
+        TaskList taskList = new TaskList();
+        Task todo = new Todo("Buy milk");
+        taskList.addTask(todo);
+        journalStorage.saveChange(taskList, TaskChange.ADDED, todo);
+
+        journalStorage.save(taskList.getAllTasks());
+
+        assertFalse(new File(testFilePath + ".journal").exists());
+        assertEquals(1, new Storage(testFilePath).load().size());
+        assertEquals(1, new Storage(testFilePath, StorageMode.JOURNAL).load().size());
+    }
+
+    @Test
+    public void load_journalWithTornRecord_ignoresTornRecord() throws IOException {
+        Files.writeString(tempDir.resolve("test_hal.txt.journal"),
+                "A | T | 0 | Buy milk\nA | T | 0 | Buy br");
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath, StorageMode.JOURNAL).load();
+
+        assertEquals(1, loadedTasks.size());
+        assertEquals("Buy milk", loadedTasks.get(0).getDescription());
+    }
+
+    @Test
+    public void saveChange_journalAfterTornRecord_keepsAppendedChange() throws IOException {
+        Files.writeString(tempDir.resolve("test_hal.txt.journal"),
+                "A | T | 0 | Buy milk\nA | T | 0 | Buy br");
+        Storage journalStorage = new Storage(testFilePath, StorageMode.JOURNAL);
+        TaskList taskList = new TaskList();
+        taskList.addTasks(journalStorage.load().toArray(new Task[0]));
+
+        Task todo = new Todo("Buy eggs");
+        taskList.addTask(todo);
+        journalStorage.saveChange(taskList, TaskChange.ADDED, todo);
+        ArrayList<Task> loadedTasks = new Storage(testFilePath, StorageMode.JOURNAL).load();
+
+        assertEquals(2, loadedTasks.size());
+        assertEquals("Buy milk", loadedTasks.get(0).getDescription());
+        assertEquals("Buy eggs", loadedTasks.get(1).getDescription());
+    }
+
+    @Test
+    public void saveChange_deltaAfterTornRecord_keepsAppendedChange() throws IOException {
+        Files.writeString(tempDir.resolve("test_hal.txt.delta"),
+                "A | T | 0 | Buy milk\nA | T | 0 | Buy br");
+        Storage deltaStorage = new Storage(testFilePath, StorageMode.DELTA);
+        TaskList taskList = new TaskList();
+        taskList.addTasks(deltaStorage.load().toArray(new Task[0]));
+
+        Task todo = new Todo("Buy eggs");
+        taskList.addTask(todo);
+        deltaStorage.saveChange(taskList, TaskChange.ADDED, todo);
+        deltaStorage.flush();
+        ArrayList<Task> loadedTasks = new Storage(testFilePath, StorageMode.DELTA).load();
+
+        assertEquals(2, loadedTasks.size());
+        assertEquals("Buy milk", loadedTasks.get(0).getDescription());
+        assertEquals("Buy eggs", loadedTasks.get(1).getDescription());
+    }
+
+    @Test
+    public void saveChange_deltaMode_compactsAndReloadsCorrectly() {
+        Storage deltaStorage = new Storage(testFilePath, StorageMode.DELTA);
+        deltaStorage.setCompactionLimits(2, 1 << 20, 3);
+        TaskList taskList = new TaskList();
+        for (int i = 1; i <= 10; i++) {
+            Task todo = new Todo("Task " + i);
+            taskList.addTask(todo);
+            deltaStorage.saveChange(taskList, TaskChange.ADDED, todo);
+        }
+        taskList.markTask(0);
+        deltaStorage.saveChange(taskList, TaskChange.UPDATED, taskList.getTask(0));
+        Task deletedTask = taskList.deleteTask(9);
+        deltaStorage.saveChange(taskList, TaskChange.DELETED, deletedTask);
+        deltaStorage.flush();
+
+        assertTrue(new File(testFilePath).exists());
+        ArrayList<Task> loadedTasks = new Storage(testFilePath, StorageMode.DELTA).load();
+
+        assertEquals(9, loadedTasks.size());
+        assertTrue(loadedTasks.get(0).isDone());
+        assertEquals("Task 9", loadedTasks.get(8).getDescription());
+    }
+
+    @Test
+    public void load_deltaMode_replaysNoMoreThanMaxReplay() throws IOException {
+        Storage deltaStorage = new Storage(testFilePath, StorageMode.DELTA);
+        deltaStorage.setCompactionLimits(100, 1 << 20, 4);
+        TaskList taskList = new TaskList();
+        for (int i = 1; i <= 9; i++) {
+            Task todo = new Todo("Task " + i);
+            taskList.addTask(todo);
+            deltaStorage.saveChange(taskList, TaskChange.ADDED, todo);
+        }
+        deltaStorage.flush();
+
+        Path deltaFile = tempDir.resolve("test_hal.txt.delta");
+        assertTrue(Files.readAllLines(deltaFile).size() < 4);
+        assertEquals(9, new Storage(testFilePath, StorageMode.DELTA).load().size());
+    }
+
+    @Test
+    public void saveChange_deltaModeFailedCompaction_keepsChanges() throws IOException {
+        Storage deltaStorage = new Storage(testFilePath, StorageMode.DELTA);
+        deltaStorage.setCompactionLimits(2, 1 << 20, 2);
+        // A directory where the compacted file is written makes every compaction throw
+        Path blockedPath = tempDir.resolve("test_hal.txt.tmp");
+        Files.createDirectory(blockedPath);
+        TaskList taskList = new TaskList();
+        for (int i = 1; i <= 2; i++) {
+            Task todo = new Todo("Task " + i);
+            taskList.addTask(todo);
+            deltaStorage.saveChange(taskList, TaskChange.ADDED, todo);
+        }
+        Task thirdTodo = new Todo("Task 3");
+        taskList.addTask(thirdTodo);
+
+        assertThrows(HalException.class, () -> deltaStorage.saveChange(taskList, TaskChange.ADDED, thirdTodo));
+        assertEquals(taskList.getAllTasks(), new Storage(testFilePath, StorageMode.DELTA).load());
+
+        Files.delete(blockedPath);
+        Task fourthTodo = new Todo("Task 4");
+        taskList.addTask(fourthTodo);
+        deltaStorage.saveChange(taskList, TaskChange.ADDED, fourthTodo);
+        deltaStorage.flush();
+        assertEquals(taskList.getAllTasks(), new Storage(testFilePath, StorageMode.DELTA).load());
+    }
+
+    @Test
+    public void save_binaryMode_savesAndLoadsCorrectly() {
+        Storage binaryStorage = new Storage(testFilePath, StorageMode.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        Task todo = new Todo("Buy groceries");
+        todo.markAsDone();
+        tasks.add(todo);
+        tasks.add(new Deadline("Submit assignment", "25/01/2026 2359"));
+        tasks.add(new Event("Team meeting", "26/01/2026 1400", "26/01/2026 1600"));
+
+        binaryStorage.save(tasks);
+        ArrayList<Task> loadedTasks = new Storage(testFilePath, StorageMode.BINARY).load();
+
+        assertTrue(tempDir.resolve("test_hal.bin").toFile().exists());
+        assertFalse(new File(testFilePath).exists());
+        assertEquals(tasks, loadedTasks);
+        assertTrue(loadedTasks.get(0).isDone());
+        assertEquals(tasks.get(2).toString(), loadedTasks.get(2).toString());
+    }
+
+    @Test
+    public void save_binaryModeFailedSave_keepsPreviousSnapshot() throws IOException {
+        Storage binaryStorage = new Storage(testFilePath, StorageMode.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Buy groceries"));
+        binaryStorage.save(tasks);
+        byte[] snapshotBytes = Files.readAllBytes(tempDir.resolve("test_hal.bin"));
+        // A directory where the new snapshot is written makes the save fail before the old one is replaced
+        Files.createDirectory(tempDir.resolve("test_hal.bin.tmp"));
+        tasks.add(new Deadline("Submit assignment", "25/01/2026 2359"));
+
+        assertThrows(HalException.class, () -> binaryStorage.save(tasks));
+        assertArrayEquals(snapshotBytes, Files.readAllBytes(tempDir.resolve("test_hal.bin")));
+        assertEquals(1, new Storage(testFilePath, StorageMode.BINARY).load().size());
+    }
+
+    @Test
+    public void exportText_binaryMode_writesTextFile() {
+        Storage binaryStorage = new Storage(testFilePath, StorageMode.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Buy groceries"));
+        tasks.add(new Event("Team meeting", "26/01/2026 1400", "26/01/2026 1600"));
+        binaryStorage.save(tasks);
+        assertFalse(new File(testFilePath).exists());
+
+        binaryStorage.exportText(tasks);
+        assertEquals(tasks, storage.load());
+    }
+
+    @Test
+    public void exportText_journalMode_foldsJournal() {
+        Storage journalStorage = new Storage(testFilePath, StorageMode.JOURNAL);
+        TaskList taskList = new TaskList();
+        journalStorage.load();
+        Task todo = new Todo("Buy milk");
+        taskList.addTask(todo);
+        journalStorage.saveChange(taskList, TaskChange.ADDED, todo);
+
+        journalStorage.exportText(taskList.getAllTasks());
+        assertFalse(tempDir.resolve("test_hal.txt.journal").toFile().length() > 0);
+        assertEquals(taskList.getAllTasks(), storage.load());
+        assertEquals(taskList.getAllTasks(), new Storage(testFilePath, StorageMode.JOURNAL).load());
+    }
+
+    @Test
+    public void load_binaryModeWithoutSnapshot_importsTextFile() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Deadline("Submit report", "25/01/2026 2359"));
+        storage.save(tasks);
+
+        Storage binaryStorage = new Storage(testFilePath, StorageMode.BINARY);
+        ArrayList<Task> loadedTasks = binaryStorage.load();
+        assertEquals(tasks, loadedTasks);
+
+        binaryStorage.save(loadedTasks);
+        binaryStorage.exportText(new ArrayList<>());
+        assertEquals(0, storage.load().size());
+        assertEquals(1, binaryStorage.load().size());
+    }
+
+    @Test
+    public void load_parallelChunks_keepsFileOrder() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            content.append("T | ").append(i % 2).append(" | Task ").append(i).append("\r\n");
+            content.append("D | 0 | Due ").append(i).append(" | 2026-01-25T23:59\n");
+            content.append("not a task\n");
+        }
+        Files.writeString(tempDir.resolve("test_hal.txt"), content);
+
+        ArrayList<Task> sequentialTasks = storage.load();
+        storage.setParallelLoadThreshold(1);
+        ArrayList<Task> parallelTasks = storage.load();
+
+        assertEquals(10000, parallelTasks.size());
+        assertEquals(sequentialTasks, parallelTasks);
+        assertEquals("Task 4999", parallelTasks.get(9998).getDescription());
+        assertTrue(parallelTasks.get(2).isDone());
+    }
+
+    @Test
+    public void save_nonAsciiDescription_writesUtf8ForEveryPath() throws IOException {
+        String description = "Caf\u00e9 \u5348\u9910";
+        byte[] expectedBytes = ("T | 0 | " + description + "\n").getBytes(StandardCharsets.UTF_8);
+        storage.save(new Todo(description));
+        assertArrayEquals(expectedBytes, Files.readAllBytes(tempDir.resolve("test_hal.txt")));
+
+        storage.setParallelSaveThreshold(1);
+        storage.save(new Todo(description));
+        assertArrayEquals(expectedBytes, Files.readAllBytes(tempDir.resolve("test_hal.txt")));
+
+        assertEquals(description, storage.load().get(0).getDescription());
+        storage.setParallelLoadThreshold(1);
+        assertEquals(description, storage.load().get(0).getDescription());
+    }
+
+    @Test
+    public void saveChange_writeBehind_coalescesUntilFlush() {
+        Storage journalStorage = new Storage(testFilePath, StorageMode.JOURNAL);
+        journalStorage.enableWriteBehind(60_000, 1_000);
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 100; i++) {
+            Task task = new Todo("Task " + i);
+            taskList.addTask(task);
+            journalStorage.saveChange(taskList, TaskChange.ADDED, task);
+        }
+        assertFalse(tempDir.resolve("test_hal.txt.journal").toFile().exists());
+
+        journalStorage.flush();
+        assertEquals(taskList.getAllTasks(), new Storage(testFilePath, StorageMode.JOURNAL).load());
+    }
+
+    @Test
+    public void saveChange_writeBehindFullBatch_writesWithoutFlush() throws InterruptedException {
+        storage.enableWriteBehind(60_000, 2);
+        TaskList taskList = new TaskList();
+        Task first = new Todo("Read book");
+        Task second = new Todo("Return book");
+        taskList.addTask(first);
+        storage.saveChange(taskList, TaskChange.ADDED, first);
+        taskList.addTask(second);
+        storage.saveChange(taskList, TaskChange.ADDED, second);
+
+        File file = new File(testFilePath);
+        for (int i = 0; i < 100 && new Storage(testFilePath).load().size() < 2; i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(file.exists());
+        assertEquals(taskList.getAllTasks(), new Storage(testFilePath).load());
+    }
+
+    @Test
+    public void flush_writeBehindUnexpectedFailure_throws() {
+        Storage failingStorage = new Storage(testFilePath) {
+            @Override
+            void writeBatch(Task[] snapshot, String records, int recordCount) {
+                throw new IllegalStateException("Disk is gone");
+            }
+        };
+        WriteBehindFlusher flusher = new WriteBehindFlusher(failingStorage, 60_000, 1_000);
+        flusher.submitSnapshot(new Task[] {new Todo("Read book")});
+
+        assertThrows(HalException.class, flusher::flush);
+        flusher.submitSnapshot(new Task[] {new Todo("Return book")});
+        assertThrows(HalException.class, flusher::flush);
+    }
+
+    @Test
+    public void save_durable_replacesFileAtomically() {
+        storage.enableDurableSaves();
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Buy milk"));
+        tasks.add(new Event("Meeting", "12/02/2026 1400", "12/02/2026 1600"));
+        storage.save(tasks);
+        tasks.remove(0);
+        storage.save(tasks);
+
+        assertEquals(tasks, storage.load());
+        assertFalse(new File(testFilePath + ".tmp").exists());
+    }
+
+    @Test
+    public void save_durableConcurrentSaves_allCommit() throws InterruptedException {
+        storage.enableDurableSaves();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            Task task = new Todo("Task " + i);
+            threads[i] = new Thread(() -> storage.save(task));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        ArrayList<Task> loadedTasks = storage.load();
+        assertEquals(1, loadedTasks.size());
+        assertTrue(loadedTasks.get(0).getDescription().startsWith("Task "));
+        assertFalse(new File(testFilePath + ".tmp").exists());
+    }
+
+    @Test
+    public void saveChange_recordMode_updatesInPlace() {
+        Storage recordStorage = new Storage(testFilePath, StorageMode.RECORD);
+        TaskList taskList = new TaskList();
+        recordStorage.load();
+        Task todo = new Todo("Buy milk");
+        Task deadline = new Deadline("Submit report", "25/01/2026 2359");
+        taskList.addTask(todo);
+        recordStorage.saveChange(taskList, TaskChange.ADDED, todo);
+        taskList.addTask(deadline);
+        recordStorage.saveChange(taskList, TaskChange.ADDED, deadline);
+        File recordFile = tempDir.resolve("test_hal.dat").toFile();
+        long size = recordFile.length();
+
+        taskList.markTask(1);
+        recordStorage.saveChange(taskList, TaskChange.UPDATED, deadline);
+        assertEquals(size, recordFile.length());
+        taskList.deleteTask(0);
+        recordStorage.saveChange(taskList, TaskChange.DELETED, todo);
+        assertEquals(size, recordFile.length());
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath, StorageMode.RECORD).load();
+        assertEquals(taskList.getAllTasks(), loadedTasks);
+        assertTrue(loadedTasks.get(0).isDone());
+    }
+
+    @Test
+    public void load_recordModeTornRecord_keepsCompleteRecords() throws IOException {
+        Storage recordStorage = new Storage(testFilePath, StorageMode.RECORD);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Buy milk"));
+        tasks.get(0).markAsDone();
+        recordStorage.save(tasks);
+        Path recordPath = tempDir.resolve("test_hal.dat");
+        byte[] bytes = Files.readAllBytes(recordPath);
+        byte[] torn = new byte[bytes.length + 10];
+        System.arraycopy(bytes, 0, torn, 0, bytes.length);
+        torn[bytes.length] = 1;
+        Files.write(recordPath, torn);
+
+        ArrayList<Task> loadedTasks = new Storage(testFilePath, StorageMode.RECORD).load();
+        assertEquals(tasks, loadedTasks);
+        assertTrue(loadedTasks.get(0).isDone());
+        assertEquals(bytes.length, recordPath.toFile().length());
+    }
+
+    @Test
+    public void load_recordModeCorruptedMiddleRecord_throwsAndKeepsFile() throws IOException {
+        Storage recordStorage = new Storage(testFilePath, StorageMode.RECORD);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(new Todo("Task " + i));
+        }
+        recordStorage.save(tasks);
+        Path recordPath = tempDir.resolve("test_hal.dat");
+        byte[] bytes = Files.readAllBytes(recordPath);
+        int secondRecordTypeOffset = 8 + 1 + 22 + "Task 0".length() + 1;
+        bytes[secondRecordTypeOffset] = 9;
+        Files.write(recordPath, bytes);
+
+        assertThrows(HalException.class, () -> new Storage(testFilePath, StorageMode.RECORD).load());
+        assertArrayEquals(bytes, Files.readAllBytes(recordPath));
+    }
+
+    @Test
+    public void save_parallelChunks_matchesSequentialFile() throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            tasks.add(i % 2 == 0 ? new Todo("Task " + i) : new Deadline("Due " + i, "25/01/2026 2359"));
+        }
+        tasks.get(3).markAsDone();
+        storage.save(tasks);
+        byte[] sequentialBytes = Files.readAllBytes(tempDir.resolve("test_hal.txt"));
+
+        storage.setParallelSaveThreshold(1);
+        storage.save(tasks);
+        storage.save(tasks);
+
+        assertEquals(new String(sequentialBytes), Files.readString(tempDir.resolve("test_hal.txt")));
+        assertEquals(tasks, storage.load());
+    }
 }
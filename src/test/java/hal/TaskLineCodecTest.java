@@ -0,0 +1,81 @@
+package hal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskLineCodecTest {
+    private final TaskLineCodec codec = new TaskLineCodec();
+
+    @Test
+    public void decode_todo_success() {
+        Task task = codec.decode("T | 1 | Read book");
+        assertEquals(new Todo("Read book"), task);
+        assertTrue(task.isDone());
+        assertEquals(TaskLineCodec.OK, codec.getStatus());
+    }
+
+    @Test
+    public void decode_deadlineAndEvent_matchesFileFormat() {
+        Task deadline = new Deadline("Submit report", "25/01/2026 2359");
+        Task event = new Event("Team meeting", "26/01/2026 1400", "26/01/2026 1600");
+        assertEquals(deadline, codec.decode(deadline.toFileFormat()));
+        assertEquals(event, codec.decode(event.toFileFormat()));
+    }
+
+    @Test
+    public void decode_lineWithinLargerText_usesOffsets() {
+        String text = "T | 0 | First\nT | 0 | Second\n";
+        assertEquals(new Todo("Second"), codec.decode(text, 14, 28));
+    }
+
+    @Test
+    public void decode_malformedLines_returnsStatusCode() {
+        assertNull(codec.decode("T | 0"));
+        assertEquals(TaskLineCodec.MISSING_FIELD, codec.getStatus());
+        assertNull(codec.decode("X | 0 | Something"));
+        assertEquals(TaskLineCodec.INVALID_TYPE, codec.getStatus());
+        assertNull(codec.decode("D | 0 | Submit report"));
+        assertEquals(TaskLineCodec.MISSING_FIELD, codec.getStatus());
+        assertNull(codec.decode("D | 0 | Submit report | 2026-02-30T10:00"));
+        assertEquals(TaskLineCodec.INVALID_DATE, codec.getStatus());
+        assertNull(codec.decode("E | 0 | Party | 2026-01-01T10:00 | tomorrow"));
+        assertEquals(TaskLineCodec.INVALID_DATE, codec.getStatus());
+    }
+
+    @Test
+    public void parseIsoMinute_validDates_matchesLocalDateTime() {
+        String[] dates = {"1970-01-01T00:00", "2024-02-29T23:59", "2026-12-31T12:30", "1899-03-01T08:05"};
+        for (String date : dates) {
+            long expected = DateTimeCodec.toEpochMinute(LocalDateTime.parse(date));
+            assertEquals(expected, DateTimeCodec.parseIsoMinute(date, 0, date.length()));
+        }
+    }
+
+    @Test
+    public void parseIsoMinute_invalidDates_returnsInvalid() {
+        String[] dates = {"2023-02-29T10:00", "2026-13-01T10:00", "2026-01-01T24:00", "2026-01-01 10:00",
+            "2026-01-01T10:00:00", "2026-0a-01T10:00"};
+        for (String date : dates) {
+            assertEquals(DateTimeCodec.INVALID, DateTimeCodec.parseIsoMinute(date, 0, date.length()));
+        }
+    }
+
+    @Test
+    public void decode_lazyTasks_matchEagerTasks() {
+        Task deadline = codec.decode("D | 1 | Submit report | 2026-01-25T23:59");
+        Task event = codec.decode("E | 0 | Meeting | 2026-02-12T14:00 | 2026-02-12T16:00");
+        Deadline eagerDeadline = new Deadline("submit REPORT", "25/01/2026 2359");
+        Event eagerEvent = new Event("Meeting", "12/02/2026 1400", "12/02/2026 1600");
+
+        assertEquals(eagerDeadline.hashCode(), deadline.hashCode());
+        assertEquals(eagerDeadline, deadline);
+        assertEquals(eagerEvent, event);
+        assertEquals(eagerEvent.toString(), event.toString());
+        assertEquals("D | 1 | Submit report | 2026-01-25T23:59", deadline.toFileFormat());
+    }
+}
@@ -6,7 +6,9 @@ import org.junit.jupiter.api.BeforeEach;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -235,4 +237,239 @@ public class TaskListTest {
         ArrayList<Task> foundTasks = taskList.findTasks("task");
         assertEquals(3, foundTasks.size());
     }
+
+    @Test
+    public void addTask_duplicateIgnoringCase_rejected() {
+        taskList.addTask(task1);
+        taskList.addTask(task3);
+
+        assertFalse(taskList.addTask(new Todo("BUY GROCERIES")));
+        assertFalse(taskList.addTask(new Deadline("submit report", "25/01/2026 2359")));
+        assertTrue(taskList.addTask(new Deadline("Submit report", "26/01/2026 2359")));
+        assertEquals(3, taskList.getTaskCount());
+    }
+
+    @Test
+    public void findDuplicateIndices_afterDelete_returnsCurrentIndex() {
+        taskList.addTask(task1);
+        taskList.addTask(task2);
+        taskList.addTask(task3);
+        taskList.deleteTask(0);
+
+        ArrayList<Integer> indices = taskList.findDuplicateIndices(new Deadline("SUBMIT report", "25/01/2026 2359"));
+        assertEquals(1, indices.size());
+        assertEquals(Integer.valueOf(1), indices.get(0));
+        assertTrue(taskList.findDuplicateIndices(task1).isEmpty());
+        assertTrue(taskList.addTask(task1));
+    }
+
+    @Test
+    public void findTasks_substringOfWord_returnsMatches() {
+        taskList.addTask(new Todo("Read a book"));
+        taskList.addTask(new Todo("Notebook shopping"));
+        taskList.addTask(new Todo("Cook dinner"));
+        taskList.addTask(new Todo("Return book, pen"));
+
+        assertEquals(4, taskList.findTasks("ook").size());
+        assertEquals(1, taskList.findTasks("a book").size());
+        assertEquals(1, taskList.findTasks("ok, p").size());
+        assertEquals(1, taskList.findTasks("n b").size());
+        assertEquals(1, taskList.findTasks(", ").size());
+    }
+
+    @Test
+    public void searchTasks_andOrQueries_returnsMatchesInOrder() {
+        taskList.addTask(task1);
+        taskList.addTask(task2);
+        taskList.addTask(task3);
+        taskList.addTask(new Todo("Buy book"));
+        taskList.deleteTask(0);
+
+        ArrayList<Task> bothTasks = taskList.searchTasks("book /and buy");
+        assertEquals(1, bothTasks.size());
+        assertEquals("Buy book", bothTasks.get(0).getDescription());
+        ArrayList<Task> eitherTasks = taskList.searchTasks("report /or read");
+        assertEquals(2, eitherTasks.size());
+        assertEquals(task2, eitherTasks.get(0));
+        assertEquals(task3, eitherTasks.get(1));
+        assertEquals(3, taskList.searchTasks("BOOK /or report /and submit").size());
+        assertTrue(taskList.searchTasks("groceries").isEmpty());
+    }
+
+    @Test
+    public void findTasks_afterManyDeletes_matchesFullScan() {
+        String[] words = {"read", "book", "Cook", "notebook", "\u00e4", "b-o", "xyz"};
+        for (int i = 0; i < 3000; i++) {
+            taskList.addTask(new Todo(words[i % words.length] + " " + words[(i / 7) % words.length] + " " + i));
+        }
+        for (int i = 0; i < 2000; i++) {
+            taskList.deleteTask(i % taskList.getTaskCount());
+        }
+
+        for (String keyword : new String[] {"ook", "BOOK 1", "d b", "\u00e4 n", "1", "b-o", "zz", "k", "ebook r"}) {
+            ArrayList<Task> expected = new ArrayList<>();
+            for (Task task : taskList.getAllTasks()) {
+                if (task.getDescription().toLowerCase().contains(keyword.toLowerCase())) {
+                    expected.add(task);
+                }
+            }
+            assertEquals(expected, taskList.findTasks(keyword));
+        }
+    }
+
+    @Test
+    public void findTasks_shortKeywordAfterChanges_findsNewWords() {
+        taskList.addTask(new Todo("Read a book"));
+        assertEquals(1, taskList.findTasks("bo").size());
+        assertEquals(1, taskList.findTasks("a").size());
+
+        taskList.addTask(new Todo("Borrow pen"));
+        taskList.addTask(new Todo("Cab home"));
+        taskList.deleteTask(0);
+
+        assertEquals(1, taskList.findTasks("bo").size());
+        assertEquals("Borrow pen", taskList.findTasks("bo").get(0).getDescription());
+        assertEquals(1, taskList.findTasks("a").size());
+        assertEquals("Cab home", taskList.findTasks("a").get(0).getDescription());
+    }
+
+    @Test
+    public void deleteTask_shownTask_dropsRenderedLine() {
+        taskList.addTask(task1);
+        String line = task1.toString();
+        assertNotNull(task1.getRenderedLine());
+
+        Task deletedTask = taskList.deleteTask(0);
+        assertEquals(line, deletedTask.toString());
+        assertNull(deletedTask.getRenderedLine());
+    }
+
+    @Test
+    public void findTasksDue_range_returnsTasksInTimeOrder() {
+        Task event = new Event("Team meeting", "20/01/2026 1400", "20/01/2026 1600");
+        Task lateDeadline = new Deadline("Pay rent", "01/02/2026 0900");
+        taskList.addTask(task1);
+        taskList.addTask(task3);
+        taskList.addTask(event);
+        taskList.addTask(lateDeadline);
+
+        long start = DateTimeCodec.toEpochMinute(java.time.LocalDateTime.of(2026, 1, 20, 0, 0));
+        long end = DateTimeCodec.toEpochMinute(java.time.LocalDateTime.of(2026, 1, 31, 23, 59));
+        ArrayList<Task> dueTasks = taskList.findTasksDue(start, end);
+        assertEquals(2, dueTasks.size());
+        assertEquals(event, dueTasks.get(0));
+        assertEquals(task3, dueTasks.get(1));
+        assertEquals(3, taskList.findTasksDue(Long.MIN_VALUE, Long.MAX_VALUE).size());
+        assertTrue(taskList.findTasksDue(end, start).isEmpty());
+    }
+
+    @Test
+    public void findTasksDue_afterDelete_omitsDeletedTask() {
+        Task sameMinute = new Deadline("Submit slides", "25/01/2026 2359");
+        taskList.addTask(task3);
+        taskList.addTask(sameMinute);
+        taskList.deleteTask(0);
+
+        ArrayList<Task> dueTasks = taskList.findTasksDue(Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(1, dueTasks.size());
+        assertEquals(sameMinute, dueTasks.get(0));
+    }
+
+    @Test
+    public void findOverlappingEvents_afterDelete_omitsDeletedEvent() {
+        Event meeting = new Event("Team meeting", "20/01/2026 1400", "20/01/2026 1600");
+        Event lunch = new Event("Lunch", "20/01/2026 1200", "20/01/2026 1400");
+        Event review = new Event("Review", "20/01/2026 1500", "20/01/2026 1700");
+        taskList.addTask(meeting);
+        taskList.addTask(lunch);
+        taskList.addTask(review);
+
+        assertEquals(1, taskList.findOverlappingEvents(meeting).size());
+        assertEquals(review, taskList.findOverlappingEvents(meeting).get(0));
+        assertTrue(taskList.findOverlappingEvents(lunch).isEmpty());
+        assertEquals(1, taskList.findConflicts().size());
+        taskList.deleteTask(2);
+        assertTrue(taskList.findOverlappingEvents(meeting).isEmpty());
+        assertTrue(taskList.findConflicts().isEmpty());
+    }
+
+    @Test
+    public void getIndexById_afterDelete_followsTask() {
+        taskList.addTask(task1);
+        taskList.addTask(task2);
+        taskList.addTask(task3);
+        long id = task3.getId();
+        assertEquals(2, taskList.getIndexById(id));
+
+        taskList.deleteTask(0);
+        assertEquals(id, task3.getId());
+        assertEquals(1, taskList.getIndexById(id));
+        assertEquals(task3, taskList.getTaskById(id));
+        assertEquals(-1, taskList.getIndexById(task1.getId()));
+        assertNull(taskList.getTaskById(task1.getId()));
+        taskList.addTask(new Todo("Water plants"));
+        assertTrue(taskList.getTask(2).getId() > id);
+    }
+
+    @Test
+    public void deleteTask_treeBackedList_matchesArrayBackedList() {
+        TaskList treeList = new TaskList(100);
+        for (int i = 0; i < 1000; i++) {
+            taskList.addTask(new Todo("Task " + i));
+            treeList.addTask(new Todo("Task " + i));
+        }
+        for (int i = 0; i < 600; i++) {
+            int index = (i * 7) % taskList.getTaskCount();
+            assertEquals(taskList.deleteTask(index), treeList.deleteTask(index));
+        }
+
+        assertEquals(taskList.getAllTasks(), treeList.getAllTasks());
+        Task task = treeList.getTask(150);
+        assertEquals(150, treeList.getIndexById(task.getId()));
+        assertEquals(taskList.findTasks("Task 9"), treeList.findTasks("Task 9"));
+    }
+
+    @Test
+    public void addTask_loadedTasks_decodesDescriptionsOnFirstSearch() {
+        TaskLineCodec codec = new TaskLineCodec();
+        Task todo = codec.decode("T | 0 | Water plants");
+        Task deadline = codec.decode("D | 0 | Submit report | 2026-01-25T23:59");
+        taskList.addTask(todo);
+        taskList.addTask(deadline);
+
+        assertFalse(taskList.addTask(new Todo("water PLANTS")));
+        assertEquals(1, taskList.findTasksDue(Long.MIN_VALUE, Long.MAX_VALUE).size());
+        assertFalse(deadline.isDescriptionDecoded());
+        assertEquals(deadline, taskList.findTasks("REPORT").get(0));
+        assertTrue(deadline.isDescriptionDecoded());
+        assertTrue(deadline.isDescriptionShared());
+        taskList.deleteTask(1);
+        assertTrue(taskList.findTasks("report").isEmpty());
+    }
+
+    @Test
+    public void addTask_repeatedDescription_sharesOneCopy() {
+        Task first = new Deadline("Submit weekly report", "25/01/2026 2359");
+        Task second = new Deadline(new String("Submit weekly report"), "01/02/2026 2359");
+        taskList.addTask(first);
+        taskList.addTask(second);
+
+        assertSame(first.getDescription(), second.getDescription());
+        assertSame(first.getLowerDescription(), second.getLowerDescription());
+        assertEquals("submit weekly report", first.getLowerDescription());
+        taskList.deleteTask(0);
+        assertEquals(1, taskList.findTasks("WEEKLY").size());
+        assertEquals(second, taskList.findTasks("report").get(0));
+    }
+
+    @Test
+    public void deleteTask_withoutInterning_keepsSearching() {
+        TaskList plainList = new TaskList(Integer.MAX_VALUE, false);
+        plainList.addTask(new Todo("Submit weekly report"));
+        plainList.addTask(new Deadline("Submit weekly report", "25/01/2026 2359"));
+
+        assertFalse(plainList.addTask(new Todo(new String("Submit weekly report"))));
+        plainList.deleteTask(0);
+        assertEquals(1, plainList.findTasks("WEEKLY").size());
+    }
 }
@@ -101,4 +101,13 @@ public class TaskTest {
         task.markAsNotDone();
         assertFalse(task.isDone());
     }
+
+    @Test
+    public void toString_shownThenMarkedAndUnmarked_followsStatus() {
+        assertEquals("[ ] Sample task", task.toString());
+        task.markAsDone();
+        assertEquals("[X] Sample task", task.toString());
+        task.markAsNotDone();
+        assertEquals("[ ] Sample task", task.toString());
+    }
 }
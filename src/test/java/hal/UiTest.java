@@ -0,0 +1,71 @@
+package hal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class UiTest {
+    private ByteArrayOutputStream output;
+    private Ui ui;
+    private TaskList tasks;
+
+    @BeforeEach
+    public void setUp() {
+        output = new ByteArrayOutputStream();
+        ui = new Ui(new PrintStream(output, true));
+        tasks = new TaskList();
+        for (int i = 1; i <= 5; i++) {
+            tasks.addTask(new Todo("Task " + i));
+        }
+    }
+
+    @Test
+    public void showList_allTasks_writesEveryLine() {
+        ui.showList(tasks);
+        assertEquals(Ui.DIVIDER + "Here are the tasks in your list:\n"
+                + "1. [T][ ] Task 1 (#1)\n2. [T][ ] Task 2 (#2)\n3. [T][ ] Task 3 (#3)\n"
+                + "4. [T][ ] Task 4 (#4)\n5. [T][ ] Task 5 (#5)\n"
+                + Ui.DIVIDER + "\n", output.toString().replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    public void showListPage_lastPage_numbersByPosition() {
+        ui.showListPage(tasks, 3, 2);
+        assertEquals(Ui.DIVIDER + "Here are tasks 5-5 of 5 in your list (page 3 of 3):\n"
+                + "5. [T][ ] Task 5 (#5)\n" + Ui.DIVIDER + "\n",
+                output.toString().replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    public void getListPage_middlePage_matchesShownPage() {
+        assertEquals("Here are tasks 3-4 of 5 in your list (page 2 of 3):\n"
+                + "3. [T][ ] Task 3 (#3)\n4. [T][ ] Task 4 (#4)", ui.getListPage(tasks, 2, 2));
+        assertEquals("Here are the tasks in your list:\n1. [T][ ] Task 1 (#1)\n2. [T][ ] Task 2 (#2)\n"
+                + "3. [T][ ] Task 3 (#3)\n4. [T][ ] Task 4 (#4)\n5. [T][ ] Task 5 (#5)", ui.getList(tasks));
+    }
+
+    @Test
+    public void getFoundTasks_secondPage_showsIds() {
+        ArrayList<Task> found = tasks.findTasks("task");
+        assertEquals("Here are matching tasks 4-5 of 5 (page 2 of 2):\n"
+                + "4. [T][ ] Task 4 (#4)\n5. [T][ ] Task 5 (#5)", ui.getFoundTasks(found, 2, 3));
+        assertEquals("No matching tasks found.", ui.getFoundTasks(new ArrayList<>(), 1, 3));
+    }
+
+    @Test
+    public void getList_afterDelete_showsUnchangedIds() {
+        tasks.deleteTask(0);
+        assertEquals("Here are tasks 1-2 of 4 in your list (page 1 of 2):\n"
+                + "1. [T][ ] Task 2 (#2)\n2. [T][ ] Task 3 (#3)", ui.getListPage(tasks, 1, 2));
+    }
+
+    @Test
+    public void getListPage_emptyList_showsEmptyList() {
+        assertEquals("Here are the tasks in your list:", ui.getListPage(new TaskList(), 1, 2));
+    }
+}